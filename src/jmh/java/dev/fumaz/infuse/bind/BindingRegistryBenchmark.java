@@ -0,0 +1,80 @@
+package dev.fumaz.infuse.bind;
+
+import dev.fumaz.infuse.provider.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BindingRegistry#find} as the number of registered bindings grows. Lookup cost should stay flat
+ * across every {@code bindingCount}, and frozen registries should avoid locking and copying entirely.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingRegistryBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "50000"})
+    public int bindingCount;
+
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    private BindingRegistry registry;
+    private BindingQualifier firstQualifier;
+    private BindingQualifier lastQualifier;
+
+    @Setup
+    public void setup() {
+        registry = new BindingRegistry();
+
+        for (int i = 0; i < bindingCount; i++) {
+            registry.add(new Binding<>(Service.class, Provider.instance(new Service()),
+                    BindingQualifier.named("service-" + i), BindingScope.INSTANCE, false));
+        }
+
+        if (frozen) {
+            registry.freeze();
+        }
+
+        firstQualifier = BindingQualifier.named("service-0");
+        lastQualifier = BindingQualifier.named("service-" + (bindingCount - 1));
+    }
+
+    @Benchmark
+    public List<Binding<Service>> findFirstRegistered() {
+        return registry.find(Service.class, firstQualifier, BindingScope.ANY);
+    }
+
+    @Benchmark
+    public List<Binding<Service>> findLastRegistered() {
+        return registry.find(Service.class, lastQualifier, BindingScope.ANY);
+    }
+
+    @Benchmark
+    public List<Binding<String>> findMissing() {
+        return registry.find(String.class, BindingQualifier.none(), BindingScope.ANY);
+    }
+
+    @Benchmark
+    public List<Binding<Service>> findWithExplicitScope() {
+        return registry.find(Service.class, lastQualifier, BindingScope.INSTANCE);
+    }
+
+    public static class Service {
+    }
+}
@@ -0,0 +1,90 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating a per-job child injector with {@link Injector#child} against stamping one from a
+ * {@link ChildTemplate}, and resolving a job handler from the stamped child.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChildTemplateBenchmark {
+
+    private Injector parent;
+    private ChildTemplate template;
+    private Job job;
+
+    @Setup
+    public void setup() {
+        parent = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Service.class).toSingleton();
+            }
+        });
+        template = parent.childTemplate()
+                .instance(Job.class)
+                .modules(new JobModule())
+                .build();
+        job = new Job();
+    }
+
+    @Benchmark
+    public Injector fullChild() {
+        return parent.child(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Handler.class).to(Handler.class);
+                bind(Job.class).toImmutableInstance(job);
+            }
+        });
+    }
+
+    @Benchmark
+    public Injector stampedChild() {
+        return template.newChild().instance(Job.class, job).create();
+    }
+
+    @Benchmark
+    public Handler stampedChildAndHandler() {
+        return template.newChild().instance(Job.class, job).create().provide(Handler.class, job);
+    }
+
+    public static class JobModule extends InfuseModule {
+        @Override
+        public void configure() {
+            bind(Handler.class).to(Handler.class);
+        }
+    }
+
+    public static class Service {
+    }
+
+    public static class Job {
+    }
+
+    public static class Handler {
+        @Inject
+        Job job;
+
+        @Inject
+        Service service;
+    }
+}
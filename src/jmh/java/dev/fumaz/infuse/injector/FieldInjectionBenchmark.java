@@ -0,0 +1,76 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Injector#inject(Object)} into an object whose fields resolve to initialised singletons and
+ * instance bindings. Once each field's injection point has cached its fixed instance, repeat injections skip binding
+ * resolution entirely.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldInjectionBenchmark {
+
+    private Injector injector;
+    private Consumer consumer;
+
+    @Setup
+    public void setup() {
+        injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(First.class).toSingleton();
+                bind(Second.class).toEagerSingleton();
+                bind(Third.class).toInstance(new Third());
+            }
+        });
+        consumer = new Consumer();
+        injector.inject(consumer);
+    }
+
+    @Benchmark
+    public Consumer injectFixedInstances() {
+        injector.inject(consumer);
+        return consumer;
+    }
+
+    public static class First {
+    }
+
+    public static class Second {
+    }
+
+    public static class Third {
+    }
+
+    public static class Consumer {
+        @Inject
+        private First first;
+
+        @Inject
+        private Second second;
+
+        @Inject
+        private Third third;
+
+        @Inject
+        private Injector injector;
+    }
+}
@@ -0,0 +1,91 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating an unscoped, per-message object through the injector, next to the two ways of calling its
+ * constructor on their own: the reflective {@link Constructor#newInstance(Object...)} path the injector used to take,
+ * made accessible on every call, and the cached {@link MethodHandle} it takes now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationBenchmark {
+
+    private Injector injector;
+    private Constructor<Message> constructor;
+    private MethodHandle handle;
+    private Object[] arguments;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Service.class).toSingleton();
+                bind(Clock.class).toSingleton();
+                bind(Message.class).to(Message.class);
+            }
+        });
+
+        constructor = Message.class.getDeclaredConstructor(Service.class, Clock.class);
+        handle = MethodHandles.lookup()
+                .unreflectConstructor(constructor)
+                .asType(MethodType.genericMethodType(2))
+                .asSpreader(Object[].class, 2);
+        arguments = new Object[]{new Service(), new Clock()};
+    }
+
+    @Benchmark
+    public Message provideUnscoped() {
+        return injector.provide(Message.class, this);
+    }
+
+    @Benchmark
+    public Message reflectiveConstructor() throws ReflectiveOperationException {
+        constructor.setAccessible(true);
+        return constructor.newInstance(arguments);
+    }
+
+    @Benchmark
+    public Object methodHandleConstructor() throws Throwable {
+        return (Object) handle.invokeExact(arguments);
+    }
+
+    public static class Service {
+    }
+
+    public static class Clock {
+    }
+
+    public static class Message {
+        private final Service service;
+        private final Clock clock;
+
+        @Inject
+        public Message(Service service, Clock clock) {
+            this.service = service;
+            this.clock = clock;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.context.Context;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.ElementType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Injector#provide(Class, Context)} for singletons that have already been created. Run with the
+ * {@code gc} profiler (enabled in the Gradle {@code jmh} block): {@code gc.alloc.rate.norm} should report zero bytes
+ * per operation for both the root and the nested injector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SingletonProvisionBenchmark {
+
+    private Injector root;
+    private Injector nested;
+    private Context<?> rootContext;
+    private Context<?> nestedContext;
+
+    @Setup
+    public void setup() {
+        root = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Service.class).toSingleton();
+                bind(EagerService.class).toEagerSingleton();
+            }
+        });
+        nested = root.child().child().child();
+
+        Consumer consumer = new Consumer();
+        rootContext = new Context<>(Consumer.class, consumer, root, ElementType.FIELD, "service", new Annotation[0]);
+        nestedContext = new Context<>(Consumer.class, consumer, nested, ElementType.FIELD, "service",
+                new Annotation[0]);
+
+        root.provide(Service.class, rootContext);
+    }
+
+    @Benchmark
+    public Service lazySingleton() {
+        return root.provide(Service.class, rootContext);
+    }
+
+    @Benchmark
+    public EagerService eagerSingleton() {
+        return root.provide(EagerService.class, rootContext);
+    }
+
+    @Benchmark
+    public Service lazySingletonFromNestedInjector() {
+        return nested.provide(Service.class, nestedContext);
+    }
+
+    public static class Service {
+    }
+
+    public static class EagerService {
+    }
+
+    public static class Consumer {
+    }
+}
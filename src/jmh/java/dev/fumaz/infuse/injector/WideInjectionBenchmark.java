@@ -0,0 +1,187 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.PostConstruct;
+import dev.fumaz.infuse.annotation.PostInject;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per-object injection into a class with 20 injected fields and two lifecycle callbacks, through
+ * {@link Injector#inject(Object)} and through construction, with reflection and with hidden class member
+ * injectors, next to assigning the same fields with {@link Field#set(Object, Object)} and with setter
+ * {@link MethodHandle}s on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WideInjectionBenchmark {
+
+    private Injector injector;
+    private Injector hiddenClassInjector;
+    private Wide wide;
+    private Field[] fields;
+    private MethodHandle[] setters;
+    private Object[] values;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        injector = Injector.create(new WideModule());
+        hiddenClassInjector = Injector.create(InjectorOptions.builder()
+                .memberInjection(InjectorOptions.MemberInjection.HIDDEN_CLASSES)
+                .build(), new WideModule());
+        wide = new Wide();
+        injector.inject(wide);
+
+        fields = Wide.class.getDeclaredFields();
+        setters = new MethodHandle[fields.length];
+        values = new Object[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].setAccessible(true);
+            setters[i] = MethodHandles.lookup()
+                    .unreflectSetter(fields[i])
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            values[i] = fields[i].get(wide);
+        }
+    }
+
+    @Benchmark
+    public Wide injectExisting() {
+        injector.inject(wide);
+        return wide;
+    }
+
+    @Benchmark
+    public Wide constructAndInject() {
+        return injector.construct(Wide.class);
+    }
+
+    @Benchmark
+    public Wide injectExistingHiddenClasses() {
+        hiddenClassInjector.inject(wide);
+        return wide;
+    }
+
+    @Benchmark
+    public Wide constructAndInjectHiddenClasses() {
+        return hiddenClassInjector.construct(Wide.class);
+    }
+
+    @Benchmark
+    public Wide reflectiveFieldSets() throws IllegalAccessException {
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].set(wide, values[i]);
+        }
+
+        return wide;
+    }
+
+    @Benchmark
+    public Wide handleFieldSets() throws Throwable {
+        for (int i = 0; i < setters.length; i++) {
+            setters[i].invokeExact((Object) wide, values[i]);
+        }
+
+        return wide;
+    }
+
+    public static class WideModule extends InfuseModule {
+        @Override
+        public void configure() {
+            bind(First.class).toSingleton();
+            bind(Second.class).toSingleton();
+            bind(Third.class).toSingleton();
+            bind(Fourth.class).toSingleton();
+            bind(Fifth.class).toSingleton();
+        }
+    }
+
+    public static class First {
+    }
+
+    public static class Second {
+    }
+
+    public static class Third {
+    }
+
+    public static class Fourth {
+    }
+
+    public static class Fifth {
+    }
+
+    public static class Wide {
+        @Inject
+        private First first1;
+        @Inject
+        private Second second1;
+        @Inject
+        private Third third1;
+        @Inject
+        private Fourth fourth1;
+        @Inject
+        private Fifth fifth1;
+        @Inject
+        private First first2;
+        @Inject
+        private Second second2;
+        @Inject
+        private Third third2;
+        @Inject
+        private Fourth fourth2;
+        @Inject
+        private Fifth fifth2;
+        @Inject
+        private First first3;
+        @Inject
+        private Second second3;
+        @Inject
+        private Third third3;
+        @Inject
+        private Fourth fourth3;
+        @Inject
+        private Fifth fifth3;
+        @Inject
+        private First first4;
+        @Inject
+        private Second second4;
+        @Inject
+        private Third third4;
+        @Inject
+        private Fourth fourth4;
+        @Inject
+        private Fifth fifth4;
+
+        private int callbacks;
+
+        @PostConstruct
+        private void constructed() {
+            callbacks++;
+        }
+
+        @PostInject
+        private void injected() {
+            callbacks++;
+        }
+    }
+}
@@ -15,6 +15,7 @@ public class Binding<T> {
     private final @NotNull BindingKey key;
     private final @NotNull Provider<T> provider;
     private final boolean collectionContribution;
+    private final int hash;
 
     public Binding(@NotNull Class<T> type, @NotNull Provider<T> provider) {
         this(type, provider, BindingQualifier.none(), BindingScope.UNSCOPED, false);
@@ -28,6 +29,7 @@ public class Binding<T> {
         this.key = BindingKey.of(type, qualifier, scope);
         this.provider = provider;
         this.collectionContribution = collectionContribution;
+        this.hash = Objects.hash(key, provider, collectionContribution);
     }
 
     @SuppressWarnings("unchecked")
@@ -67,12 +69,12 @@ public class Binding<T> {
 
         Binding<?> binding = (Binding<?>) o;
         return collectionContribution == binding.collectionContribution
-                && Objects.equals(key, binding.key)
+                && key == binding.key
                 && Objects.equals(provider, binding.provider);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key, provider, collectionContribution);
+        return hash;
     }
 }
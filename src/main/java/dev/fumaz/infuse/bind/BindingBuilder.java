@@ -3,6 +3,7 @@ package dev.fumaz.infuse.bind;
 import dev.fumaz.infuse.context.Context;
 import dev.fumaz.infuse.injector.InfuseInjector;
 import dev.fumaz.infuse.injector.Injector;
+import dev.fumaz.infuse.provider.ConstructingProvider;
 import dev.fumaz.infuse.provider.Provider;
 import dev.fumaz.infuse.provider.SingletonProvider;
 import dev.fumaz.infuse.util.InjectionUtils;
@@ -88,7 +89,7 @@ public class BindingBuilder<T> {
         Objects.requireNonNull(implementation, "implementation");
         ensureAssignable(implementation);
 
-        return toProvider(context -> type.cast(context.getInjector().construct(implementation)));
+        return toProvider(new ConstructingProvider<>(implementation));
     }
 
     public Binding<T> toSingleton() {
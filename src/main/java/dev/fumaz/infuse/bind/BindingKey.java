@@ -2,26 +2,75 @@ package dev.fumaz.infuse.bind;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Objects;
-
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Identifies a binding by type, qualifier and scope.
+ * <p>
+ * Keys are interned: equal keys are the same instance and carry a dense integer {@link #getId() id}, so they can
+ * index primitive-keyed tables and compare by identity. The keys of a type are kept on the type itself. Keys without a
+ * qualifier live as long as their type; qualified keys are only weakly held, because their qualifier may belong to a
+ * class loader the type must not keep alive, and the id of a collected key is handed to the next key created.
+ */
 public final class BindingKey {
 
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ReferenceQueue<BindingKey> COLLECTED = new ReferenceQueue<>();
+    private static final Queue<Integer> FREE_IDS = new ConcurrentLinkedQueue<>();
+
+    private static final ClassValue<TypeKeys> INTERNED = new ClassValue<TypeKeys>() {
+        @Override
+        protected TypeKeys computeValue(Class<?> type) {
+            return new TypeKeys();
+        }
+    };
+
     private final @NotNull Class<?> type;
     private final @NotNull BindingQualifier qualifier;
     private final @NotNull BindingScope scope;
+    private final int id;
+    private final int hash;
 
     private BindingKey(@NotNull Class<?> type,
                        @NotNull BindingQualifier qualifier,
-                       @NotNull BindingScope scope) {
+                       @NotNull BindingScope scope,
+                       int id) {
         this.type = type;
         this.qualifier = qualifier;
         this.scope = scope;
+        this.id = id;
+        this.hash = Objects.hash(type, qualifier, scope);
     }
 
     public static @NotNull BindingKey of(@NotNull Class<?> type,
                                          @NotNull BindingQualifier qualifier,
                                          @NotNull BindingScope scope) {
-        return new BindingKey(type, qualifier, scope);
+        TypeKeys keys = INTERNED.get(type);
+
+        if (qualifier.isDefault()) {
+            BindingKey key = keys.unqualified.get(scope);
+            return key != null ? key : keys.unqualified.computeIfAbsent(scope,
+                    unused -> new BindingKey(type, qualifier, scope, nextId()));
+        }
+
+        return keys.qualified.computeIfAbsent(new QualifiedKey(qualifier, scope),
+                unused -> new BindingKey(type, qualifier, scope, nextId()));
+    }
+
+    /**
+     * Returns the scope-independent key used to look up bindings for a type and qualifier, regardless of the scope
+     * they were registered in.
+     */
+    public static @NotNull BindingKey lookup(@NotNull Class<?> type, @NotNull BindingQualifier qualifier) {
+        return of(type, qualifier, BindingScope.ANY);
     }
 
     public @NotNull Class<?> getType() {
@@ -36,6 +85,14 @@ public final class BindingKey {
         return scope;
     }
 
+    /**
+     * Returns the dense, process-wide identifier of this key. Identifiers start at zero; no two keys that are
+     * reachable at the same time share one, but the identifier of a collected key is reused.
+     */
+    public int getId() {
+        return id;
+    }
+
     public boolean matches(@NotNull Class<?> requestedType,
                            @NotNull BindingQualifier requestedQualifier,
                            @NotNull BindingScope requestedScope) {
@@ -57,22 +114,70 @@ public final class BindingKey {
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) {
-            return true;
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static int nextId() {
+        for (Reference<? extends BindingKey> collected; (collected = COLLECTED.poll()) != null; ) {
+            FREE_IDS.add(((KeyReference) collected).id);
         }
 
-        if (!(o instanceof BindingKey)) {
-            return false;
+        Integer free = FREE_IDS.poll();
+        return free != null ? free : NEXT_ID.getAndIncrement();
+    }
+
+    /**
+     * The keys of one type.
+     */
+    private static final class TypeKeys {
+        private final ConcurrentMap<BindingScope, BindingKey> unqualified = new ConcurrentHashMap<>();
+        private final WeakValueMap<QualifiedKey, BindingKey> qualified = new WeakValueMap<>(KeyReference::new);
+    }
+
+    /**
+     * Looks up a qualified key by qualifier identity and scope, referencing the qualifier only weakly.
+     */
+    private static final class QualifiedKey {
+        private final WeakReference<BindingQualifier> qualifier;
+        private final BindingScope scope;
+        private final int hash;
+
+        private QualifiedKey(BindingQualifier qualifier, BindingScope scope) {
+            this.qualifier = qualifier.reference();
+            this.scope = scope;
+            this.hash = 31 * qualifier.hashCode() + scope.hashCode();
         }
 
-        BindingKey that = (BindingKey) o;
-        return Objects.equals(type, that.type)
-                && Objects.equals(qualifier, that.qualifier)
-                && Objects.equals(scope, that.scope);
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof QualifiedKey)) {
+                return false;
+            }
+
+            QualifiedKey other = (QualifiedKey) o;
+            return qualifier == other.qualifier && scope.equals(other.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 
-    @Override
-    public int hashCode() {
-        return Objects.hash(type, qualifier, scope);
+    /**
+     * Holds a qualified key in its intern table and returns its id once the key was collected.
+     */
+    private static final class KeyReference extends WeakReference<BindingKey> {
+        private final int id;
+
+        private KeyReference(BindingKey key) {
+            super(key, COLLECTED);
+            this.id = key.id;
+        }
     }
 }
@@ -6,22 +6,51 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Represents an identifying qualifier for a binding.
+ * <p>
+ * Qualifiers are interned: equal qualifiers are always the same instance, so equality is an identity check and the
+ * hash code is computed once. The intern table of each qualifier annotation is kept on the annotation type and only
+ * weakly references its qualifiers, so qualifiers of a plugin's own annotation go away with the plugin and names
+ * created at runtime do not accumulate. Qualifiers derived from annotation instances are additionally cached per
+ * annotation, so repeated lookups do not reflectively read the annotation's attributes again.
  */
 public final class BindingQualifier {
 
     private static final BindingQualifier NONE = new BindingQualifier(null, Collections.emptyMap(), "default");
 
+    private static final ClassValue<WeakValueMap<Map<String, Object>, BindingQualifier>> INTERNED =
+            new ClassValue<WeakValueMap<Map<String, Object>, BindingQualifier>>() {
+                @Override
+                protected WeakValueMap<Map<String, Object>, BindingQualifier> computeValue(Class<?> type) {
+                    return new WeakValueMap<>();
+                }
+            };
+
+    private static final ClassValue<ConcurrentMap<Annotation, BindingQualifier>> BY_ANNOTATION =
+            new ClassValue<ConcurrentMap<Annotation, BindingQualifier>>() {
+                @Override
+                protected ConcurrentMap<Annotation, BindingQualifier> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     private final @Nullable Class<? extends Annotation> annotationType;
     private final @NotNull Map<String, Object> attributes;
     private final @NotNull String alias;
+    private final int hash;
+    private final @NotNull WeakReference<BindingQualifier> reference;
 
     private BindingQualifier(@Nullable Class<? extends Annotation> annotationType,
                               @NotNull Map<String, Object> attributes,
@@ -29,6 +58,8 @@ public final class BindingQualifier {
         this.annotationType = annotationType;
         this.attributes = attributes;
         this.alias = alias;
+        this.hash = Objects.hash(annotationType, attributes);
+        this.reference = new WeakReference<>(this);
     }
 
     public static @NotNull BindingQualifier none() {
@@ -36,7 +67,7 @@ public final class BindingQualifier {
     }
 
     public static @NotNull BindingQualifier named(@NotNull String name) {
-        return new BindingQualifier(Named.class, Collections.singletonMap("value", name), "@" + Named.class.getSimpleName() + "(\"" + name + "\")");
+        return intern(Named.class, Collections.singletonMap("value", name));
     }
 
     public static @NotNull BindingQualifier of(@NotNull Class<? extends Annotation> qualifierType) {
@@ -54,11 +85,17 @@ public final class BindingQualifier {
             }
         }
 
-        return new BindingQualifier(qualifierType, Collections.unmodifiableMap(attributes), qualifierType.getName());
+        return intern(qualifierType, Collections.unmodifiableMap(attributes));
     }
 
     public static @NotNull BindingQualifier from(@NotNull Annotation annotation) {
         Class<? extends Annotation> annotationType = annotation.annotationType();
+        ConcurrentMap<Annotation, BindingQualifier> cache = BY_ANNOTATION.get(annotationType);
+        BindingQualifier cached = cache.get(annotation);
+
+        if (cached != null) {
+            return cached;
+        }
 
         if (!annotationType.isAnnotationPresent(Qualifier.class)) {
             throw new IllegalArgumentException("Annotation " + annotationType.getName() + " is not marked with @Qualifier");
@@ -75,7 +112,73 @@ public final class BindingQualifier {
             }
         }
 
-        return new BindingQualifier(annotationType, Collections.unmodifiableMap(attributes), annotation.toString());
+        BindingQualifier qualifier = intern(annotationType, Collections.unmodifiableMap(attributes));
+        BindingQualifier previous = cache.putIfAbsent(annotation, qualifier);
+
+        return previous != null ? previous : qualifier;
+    }
+
+    private static BindingQualifier intern(Class<? extends Annotation> annotationType,
+                                           Map<String, Object> attributes) {
+        return INTERNED.get(annotationType).computeIfAbsent(attributes,
+                unused -> new BindingQualifier(annotationType, attributes, alias(annotationType, attributes)));
+    }
+
+    /**
+     * Writes a qualifier the way its annotation is written in source, with its attributes in name order, so that equal
+     * qualifiers read the same however they were first created: {@code @Named("primary")}, or
+     * {@code @Remote(port=80, region="eu")}.
+     */
+    private static String alias(Class<? extends Annotation> annotationType, Map<String, Object> attributes) {
+        // Taken from the binary name, as reading the simple name of a nested annotation loads its enclosing class.
+        String typeName = annotationType.getName();
+        int start = Math.max(typeName.lastIndexOf('.'), typeName.lastIndexOf('$')) + 1;
+        StringBuilder builder = new StringBuilder("@").append(typeName, start, typeName.length());
+
+        if (attributes.isEmpty()) {
+            return builder.toString();
+        }
+
+        builder.append('(');
+
+        if (attributes.size() == 1 && attributes.containsKey("value")) {
+            appendValue(builder, attributes.get("value"));
+        } else {
+            String separator = "";
+
+            for (String name : new TreeSet<>(attributes.keySet())) {
+                builder.append(separator).append(name).append('=');
+                appendValue(builder, attributes.get(name));
+                separator = ", ";
+            }
+        }
+
+        return builder.append(')').toString();
+    }
+
+    private static void appendValue(StringBuilder builder, @Nullable Object value) {
+        if (value instanceof String) {
+            builder.append('"').append(value).append('"');
+        } else if (value instanceof Character) {
+            builder.append('\'').append(value).append('\'');
+        } else if (value instanceof Class) {
+            builder.append(((Class<?>) value).getName()).append(".class");
+        } else if (value instanceof Enum) {
+            builder.append(((Enum<?>) value).name());
+        } else if (value instanceof List) {
+            builder.append('{');
+            String separator = "";
+
+            for (Object element : (List<?>) value) {
+                builder.append(separator);
+                appendValue(builder, element);
+                separator = ", ";
+            }
+
+            builder.append('}');
+        } else {
+            builder.append(value);
+        }
     }
 
     public @Nullable Class<? extends Annotation> getAnnotationType() {
@@ -94,24 +197,22 @@ public final class BindingQualifier {
         return this == NONE;
     }
 
+    /**
+     * Returns the one weak reference to this qualifier, which tables that must not keep the qualifier alive use in its
+     * place.
+     */
+    @NotNull WeakReference<BindingQualifier> reference() {
+        return reference;
+    }
+
     @Override
     public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-
-        if (!(o instanceof BindingQualifier)) {
-            return false;
-        }
-
-        BindingQualifier that = (BindingQualifier) o;
-        return Objects.equals(annotationType, that.annotationType)
-                && Objects.equals(attributes, that.attributes);
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(annotationType, attributes);
+        return hash;
     }
 
     @Override
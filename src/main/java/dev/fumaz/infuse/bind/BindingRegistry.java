@@ -4,17 +4,44 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores the bindings registered with an injector.
+ * <p>
+ * The registry is mutable until {@link #freeze()} is called. Freezing publishes an immutable snapshot of every
+ * index, after which all reads are lock-free and further registrations are rejected.
+ */
 public final class BindingRegistry {
 
     private final Map<BindingKey, List<Binding<?>>> bindings = new LinkedHashMap<>();
+    private final Map<BindingKey, List<Binding<?>>> lookupIndex = new HashMap<>();
+    private final Map<Class<?>, List<Binding<?>>> typeIndex = new HashMap<>();
     private final List<Binding<?>> insertionOrder = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public void add(@NotNull Binding<?> binding) {
+        lock.lock();
 
-    public synchronized void add(@NotNull Binding<?> binding) {
+        try {
+            addLocked(binding);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addLocked(@NotNull Binding<?> binding) {
         BindingKey key = binding.getKey();
+
+        if (snapshot != null) {
+            throw new IllegalStateException("Cannot register " + key.describe() + " after the registry was frozen");
+        }
+
         List<Binding<?>> existing = bindings.computeIfAbsent(key, k -> new ArrayList<>());
 
         if (!existing.isEmpty()) {
@@ -27,42 +54,151 @@ public final class BindingRegistry {
 
         existing.add(binding);
         insertionOrder.add(binding);
+        lookupIndex.computeIfAbsent(BindingKey.lookup(key.getType(), key.getQualifier()), k -> new ArrayList<>())
+                .add(binding);
+        typeIndex.computeIfAbsent(key.getType(), k -> new ArrayList<>()).add(binding);
     }
 
-    public synchronized List<Binding<?>> all() {
-        return new ArrayList<>(insertionOrder);
+    /**
+     * Publishes an immutable snapshot of the registry. Subsequent reads no longer lock and subsequent calls to
+     * {@link #add(Binding)} fail. Calling this method more than once has no effect.
+     */
+    public void freeze() {
+        lock.lock();
+
+        try {
+            if (snapshot == null) {
+                snapshot = new Snapshot(bindings, lookupIndex, typeIndex, insertionOrder);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized List<Binding<?>> byType(@NotNull Class<?> type) {
-        List<Binding<?>> result = new ArrayList<>();
+    public boolean isFrozen() {
+        return snapshot != null;
+    }
 
-        for (Map.Entry<BindingKey, List<Binding<?>>> entry : bindings.entrySet()) {
-            if (entry.getKey().getType().equals(type)) {
-                result.addAll(entry.getValue());
-            }
+    public List<Binding<?>> all() {
+        Snapshot frozen = snapshot;
+
+        if (frozen != null) {
+            return frozen.insertionOrder;
+        }
+
+        lock.lock();
+
+        try {
+            return new ArrayList<>(insertionOrder);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Binding<?>> byType(@NotNull Class<?> type) {
+        Snapshot frozen = snapshot;
+
+        if (frozen != null) {
+            return frozen.typeIndex.getOrDefault(type, Collections.emptyList());
         }
 
-        return result;
+        lock.lock();
+
+        try {
+            return new ArrayList<>(typeIndex.getOrDefault(type, Collections.emptyList()));
+        } finally {
+            lock.unlock();
+        }
     }
 
+    /**
+     * Finds the bindings registered for the given type, qualifier and scope. Once the registry is frozen the
+     * returned list is a shared, unmodifiable view.
+     */
     @SuppressWarnings("unchecked")
-    public synchronized <T> List<Binding<T>> find(@NotNull Class<T> type,
-                                                  @NotNull BindingQualifier qualifier,
-                                                  @NotNull BindingScope scope) {
-        List<Binding<T>> matches = new ArrayList<>();
-
-        for (Map.Entry<BindingKey, List<Binding<?>>> entry : bindings.entrySet()) {
-            if (entry.getKey().matches(type, qualifier, scope)) {
-                for (Binding<?> binding : entry.getValue()) {
-                    matches.add((Binding<T>) binding);
-                }
-            }
+    public <T> List<Binding<T>> find(@NotNull Class<T> type,
+                                     @NotNull BindingQualifier qualifier,
+                                     @NotNull BindingScope scope) {
+        Snapshot frozen = snapshot;
+
+        if (frozen != null) {
+            List<Binding<?>> candidates = scope.isAny()
+                    ? frozen.lookupIndex.get(BindingKey.lookup(type, qualifier))
+                    : frozen.bindings.get(BindingKey.of(type, qualifier, scope));
+
+            return candidates == null ? Collections.emptyList() : (List<Binding<T>>) (List<?>) candidates;
+        }
+
+        lock.lock();
+
+        try {
+            return findLocked(type, qualifier, scope);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        Snapshot frozen = snapshot;
+
+        if (frozen != null) {
+            return frozen.insertionOrder.isEmpty();
+        }
+
+        lock.lock();
+
+        try {
+            return insertionOrder.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<Binding<T>> findLocked(@NotNull Class<T> type,
+                                            @NotNull BindingQualifier qualifier,
+                                            @NotNull BindingScope scope) {
+        List<Binding<?>> candidates = scope.isAny()
+                ? lookupIndex.get(BindingKey.lookup(type, qualifier))
+                : bindings.get(BindingKey.of(type, qualifier, scope));
+
+        if (candidates == null) {
+            return new ArrayList<>();
+        }
+
+        List<Binding<T>> matches = new ArrayList<>(candidates.size());
+
+        for (Binding<?> binding : candidates) {
+            matches.add((Binding<T>) binding);
         }
 
         return matches;
     }
 
-    public synchronized boolean isEmpty() {
-        return insertionOrder.isEmpty();
+    private static final class Snapshot {
+        private final Map<BindingKey, List<Binding<?>>> bindings;
+        private final Map<BindingKey, List<Binding<?>>> lookupIndex;
+        private final Map<Class<?>, List<Binding<?>>> typeIndex;
+        private final List<Binding<?>> insertionOrder;
+
+        private Snapshot(Map<BindingKey, List<Binding<?>>> bindings,
+                         Map<BindingKey, List<Binding<?>>> lookupIndex,
+                         Map<Class<?>, List<Binding<?>>> typeIndex,
+                         List<Binding<?>> insertionOrder) {
+            this.bindings = copy(bindings);
+            this.lookupIndex = copy(lookupIndex);
+            this.typeIndex = copy(typeIndex);
+            this.insertionOrder = Collections.unmodifiableList(new ArrayList<>(insertionOrder));
+        }
+
+        private static <K> Map<K, List<Binding<?>>> copy(Map<K, List<Binding<?>>> source) {
+            Map<K, List<Binding<?>>> copy = new HashMap<>(Math.max(16, source.size() * 2));
+
+            for (Map.Entry<K, List<Binding<?>>> entry : source.entrySet()) {
+                copy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+
+            return Collections.unmodifiableMap(copy);
+        }
     }
 }
@@ -0,0 +1,90 @@
+package dev.fumaz.infuse.bind;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.annotation.Annotation;
+import java.util.Objects;
+
+/**
+ * A {@link Key} identifies a dependency by type and {@link BindingQualifier}, independently of the scope it was bound
+ * in.
+ * <p>
+ * Keys resolve their qualifier and interned {@link BindingKey} once, on creation, so programmatic lookups through a
+ * key do not parse annotations or recompute hashes. Create keys once and reuse them.
+ *
+ * @param <T> the type of the class
+ */
+public final class Key<T> {
+
+    private final @NotNull Class<T> type;
+    private final @NotNull BindingKey bindingKey;
+
+    private Key(@NotNull Class<T> type, @NotNull BindingQualifier qualifier) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.bindingKey = BindingKey.lookup(type, Objects.requireNonNull(qualifier, "qualifier"));
+    }
+
+    public static <T> @NotNull Key<T> of(@NotNull Class<T> type) {
+        return new Key<>(type, BindingQualifier.none());
+    }
+
+    public static <T> @NotNull Key<T> of(@NotNull Class<T> type, @NotNull BindingQualifier qualifier) {
+        return new Key<>(type, qualifier);
+    }
+
+    public static <T> @NotNull Key<T> of(@NotNull Class<T> type, @NotNull Class<? extends Annotation> qualifierType) {
+        return new Key<>(type, BindingQualifier.of(qualifierType));
+    }
+
+    public static <T> @NotNull Key<T> named(@NotNull Class<T> type, @NotNull String name) {
+        return new Key<>(type, BindingQualifier.named(name));
+    }
+
+    public @NotNull Class<T> getType() {
+        return type;
+    }
+
+    public @NotNull BindingQualifier getQualifier() {
+        return bindingKey.getQualifier();
+    }
+
+    /**
+     * Returns the scope-independent {@link BindingKey} this key looks up, as returned by
+     * {@link BindingKey#lookup(Class, BindingQualifier)}.
+     */
+    public @NotNull BindingKey getBindingKey() {
+        return bindingKey;
+    }
+
+    /**
+     * Returns the dense identifier of this key. Keys for the same type and qualifier share the same identifier.
+     */
+    public int getId() {
+        return bindingKey.getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof Key)) {
+            return false;
+        }
+
+        return bindingKey == ((Key<?>) o).bindingKey;
+    }
+
+    @Override
+    public int hashCode() {
+        return bindingKey.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return bindingKey.getQualifier().isDefault()
+                ? type.getName()
+                : type.getName() + " " + bindingKey.getQualifier();
+    }
+}
@@ -0,0 +1,98 @@
+package dev.fumaz.infuse.bind;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * A concurrent map that only weakly references its values, used to intern values without keeping them alive: a value
+ * stays canonical for as long as anything else references it. Reads never lock. Entries whose value was collected are
+ * swept out as new entries are added, so the map stays proportional to the values still in use.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class WeakValueMap<K, V> {
+
+    private static final int MIN_SWEEP_SIZE = 16;
+
+    private final ConcurrentMap<K, WeakReference<V>> entries = new ConcurrentHashMap<>();
+    private final Function<V, WeakReference<V>> references;
+    private final AtomicInteger sweepSize = new AtomicInteger(MIN_SWEEP_SIZE);
+
+    WeakValueMap() {
+        this(WeakReference::new);
+    }
+
+    /**
+     * @param references creates the reference an added value is held through, for instance to register it with a
+     *                   queue
+     */
+    WeakValueMap(@NotNull Function<V, WeakReference<V>> references) {
+        this.references = references;
+    }
+
+    @Nullable V get(@NotNull K key) {
+        WeakReference<V> reference = entries.get(key);
+        return reference != null ? reference.get() : null;
+    }
+
+    /**
+     * Returns the value mapped to {@code key}, creating and adding one if there is none or it was collected. Racing
+     * callers may each create a value, but all of them return the one that was added.
+     */
+    @NotNull V computeIfAbsent(@NotNull K key, @NotNull Function<K, V> factory) {
+        V existing = get(key);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        V created = factory.apply(key);
+        WeakReference<V> added = references.apply(created);
+
+        while (true) {
+            WeakReference<V> current = entries.putIfAbsent(key, added);
+
+            if (current == null) {
+                sweepIfNeeded();
+                return created;
+            }
+
+            existing = current.get();
+
+            if (existing != null) {
+                return existing;
+            }
+
+            if (entries.replace(key, current, added)) {
+                return created;
+            }
+        }
+    }
+
+    private void sweepIfNeeded() {
+        int threshold = sweepSize.get();
+
+        if (entries.size() < threshold || !sweepSize.compareAndSet(threshold, Integer.MAX_VALUE)) {
+            return;
+        }
+
+        try {
+            for (Map.Entry<K, WeakReference<V>> entry : entries.entrySet()) {
+                if (entry.getValue().get() == null) {
+                    // Only removes the entry if no live value replaced the collected one in the meantime.
+                    entries.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            sweepSize.set(Math.max(MIN_SWEEP_SIZE, entries.size() * 2));
+        }
+    }
+}
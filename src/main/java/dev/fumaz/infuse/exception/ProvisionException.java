@@ -1,10 +1,22 @@
 package dev.fumaz.infuse.exception;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Signals a failure while provisioning or injecting a dependency.
+ * <p>
+ * A failure is wrapped once, where it first escapes an injection point; the injection points it unwinds through
+ * after that are recorded on the same exception as its {@link #getResolutionPath() resolution path} instead of adding
+ * a new wrapper, and a new stack trace, per level.
  */
 public class ProvisionException extends InfuseException {
 
+    private final List<String> resolutionPath = new ArrayList<>();
+
     public ProvisionException(String message) {
         super(message);
     }
@@ -16,4 +28,38 @@ public class ProvisionException extends InfuseException {
     public ProvisionException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Records an injection point the failure unwound through. Steps are added innermost first, so each step is
+     * inserted at the front of the path.
+     *
+     * @param step a description of the requested dependency and where it was requested
+     */
+    public void addResolutionStep(@NotNull String step) {
+        resolutionPath.add(0, step);
+    }
+
+    /**
+     * @return the injection points leading to the failure, outermost first
+     */
+    public @NotNull List<String> getResolutionPath() {
+        return Collections.unmodifiableList(resolutionPath);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+
+        if (resolutionPath.isEmpty()) {
+            return message;
+        }
+
+        StringBuilder builder = new StringBuilder(message).append(System.lineSeparator()).append("Resolution path:");
+
+        for (int i = 0; i < resolutionPath.size(); i++) {
+            builder.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(resolutionPath.get(i));
+        }
+
+        return builder.toString();
+    }
 }
@@ -0,0 +1,161 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.bind.Binding;
+import dev.fumaz.infuse.bind.BindingKey;
+import dev.fumaz.infuse.bind.BindingScope;
+import dev.fumaz.infuse.bind.Key;
+import dev.fumaz.infuse.module.Module;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A child injector configured once and then stamped out cheaply, for example once per job, created through
+ * {@link Injector#childTemplate()}.
+ * <p>
+ * The template's modules are configured, validated and eagerly processed once, into a child of the parent injector.
+ * Each child stamped from the template binds only the instances declared with {@link Builder#instance(Key)} and
+ * resolves everything else through the template, sharing its bindings, its singletons and its plan caches. Instances
+ * are bound as given, without being injected.
+ * <p>
+ * Stamped children hold no instances of their own and do not need to be destroyed; destroying one leaves the template
+ * and the parent untouched.
+ */
+public final class ChildTemplate {
+
+    private final InfuseInjector template;
+    private final Key<?>[] keys;
+    private final BindingKey[] lookupKeys;
+
+    private ChildTemplate(InfuseInjector template, Key<?>[] keys) {
+        this.template = template;
+        this.keys = keys;
+        this.lookupKeys = new BindingKey[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            lookupKeys[i] = keys[i].getBindingKey();
+        }
+    }
+
+    public static @NotNull Builder builder(@NotNull Injector parent) {
+        if (!(parent instanceof InfuseInjector)) {
+            throw new IllegalArgumentException("Child templates require an InfuseInjector parent");
+        }
+
+        return new Builder((InfuseInjector) parent);
+    }
+
+    /**
+     * @return the injector the template's modules were configured into, the parent of every stamped child
+     */
+    public @NotNull Injector getInjector() {
+        return template;
+    }
+
+    /**
+     * Starts a child of this template. Every declared instance has to be given before it is created.
+     */
+    public @NotNull Child newChild() {
+        return new Child();
+    }
+
+    public final class Child {
+        private final Object[] instances = new Object[keys.length];
+
+        private Child() {
+        }
+
+        public <T> @NotNull Child instance(@NotNull Class<T> type, @NotNull T instance) {
+            return instance(Key.of(type), instance);
+        }
+
+        public <T> @NotNull Child instance(@NotNull Key<T> key, @NotNull T instance) {
+            Objects.requireNonNull(instance, "instance");
+            BindingKey lookupKey = key.getBindingKey();
+
+            for (int i = 0; i < lookupKeys.length; i++) {
+                if (lookupKeys[i] == lookupKey) {
+                    instances[i] = key.getType().cast(instance);
+                    return this;
+                }
+            }
+
+            throw new IllegalArgumentException(key + " was not declared as an instance of this template");
+        }
+
+        public @NotNull Injector create() {
+            for (int i = 0; i < instances.length; i++) {
+                if (instances[i] == null) {
+                    throw new IllegalStateException("No instance was given for " + keys[i]);
+                }
+            }
+
+            return template.stamp(lookupKeys, instances.clone());
+        }
+    }
+
+    public static final class Builder {
+        private final InfuseInjector parent;
+        private final List<Key<?>> keys = new ArrayList<>();
+        private final List<Module> modules = new ArrayList<>();
+
+        private Builder(InfuseInjector parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Declares an instance that every stamped child binds.
+         */
+        public Builder instance(@NotNull Class<?> type) {
+            return instance(Key.of(type));
+        }
+
+        public Builder instance(@NotNull Key<?> key) {
+            Objects.requireNonNull(key, "key");
+
+            if (keys.contains(key)) {
+                throw new IllegalArgumentException(key + " was already declared");
+            }
+
+            keys.add(key);
+            return this;
+        }
+
+        public Builder modules(@NotNull Module... modules) {
+            this.modules.addAll(Arrays.asList(modules));
+            return this;
+        }
+
+        /**
+         * Configures the template's modules into a child of the parent.
+         *
+         * @throws dev.fumaz.infuse.exception.ConfigurationException if the parent's options require validation and
+         *                                                         the template's binding graph is invalid
+         */
+        public ChildTemplate build() {
+            List<Binding<?>> placeholders = new ArrayList<>(keys.size());
+
+            for (Key<?> key : keys) {
+                placeholders.add(placeholder(key));
+            }
+
+            InfuseInjector template = new InfuseInjector(parent, new ArrayList<>(modules), parent.getOptions(),
+                    placeholders);
+
+            return new ChildTemplate(template, keys.toArray(new Key<?>[0]));
+        }
+
+        /**
+         * Binds an instance key in the template itself, so that the template's graph validates; only stamped children
+         * can provide it.
+         */
+        private static <T> Binding<T> placeholder(Key<T> key) {
+            return new Binding<>(key.getType(), context -> {
+                throw new IllegalStateException(key + " is only bound in children stamped from a template");
+            }, key.getQualifier(), BindingScope.UNSCOPED, false);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.exception.ProvisionException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives provisioning failures from an {@link Injector}, configured through
+ * {@link InjectorOptions.Builder#diagnostics(DiagnosticsSink)}.
+ * <p>
+ * A sink is called once per failed provision, on the failing thread, after the failure has unwound to the outermost
+ * injector call. That is usually a {@link ProvisionException}, which carries the whole
+ * {@link ProvisionException#getResolutionPath() resolution path}, so no intermediate levels are reported; a dependency
+ * cycle or an ambiguous binding met by the outermost call itself is reported as the {@link IllegalStateException} that
+ * describes it. The failure is rethrown to the caller afterwards either way.
+ */
+@FunctionalInterface
+public interface DiagnosticsSink {
+
+    /**
+     * Discards every failure; callers only see the thrown exceptions. This is the default.
+     *
+     * @return the silent sink
+     */
+    static @NotNull DiagnosticsSink silent() {
+        return RateLimitedDiagnosticsSink.SILENT;
+    }
+
+    /**
+     * Prints failures to {@link System#err}, without stack traces, printing at most the given number per minute.
+     * Failures beyond that are counted and summarised once the minute has passed.
+     *
+     * @param maxReportsPerMinute the number of failures to print per minute
+     * @return the standard error sink
+     */
+    static @NotNull DiagnosticsSink standardError(int maxReportsPerMinute) {
+        return new RateLimitedDiagnosticsSink(System.err, maxReportsPerMinute, 60_000L);
+    }
+
+    void provisionFailed(@NotNull Throwable failure);
+
+}
@@ -0,0 +1,582 @@
+package dev.fumaz.infuse.injector;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Injects the members of one class through a hidden class defined for it at runtime, on Java 15 and later. The hidden
+ * class joins the nest of the injected class, so it reaches private members with plain field and method instructions:
+ * every field is assigned by one straight-line method, and a callback is called through a single switch. The fields
+ * are therefore assigned together, after every value was resolved. Hidden classes are called through the shared
+ * {@link BiConsumer} and {@link ObjIntConsumer} interfaces, so the call sites in the injector are not specialized per
+ * class.
+ * <p>
+ * Only members declared by the class itself are generated. Inherited members, static, final and primitive fields,
+ * fields whose type the hidden class could not name, and callbacks that take parameters are left to the injector's
+ * usual path. No hidden class can be defined before Java 15, for a class in a module that is not open to this library,
+ * or for one loaded into a different unnamed module, in which case {@link #generate(Class, Field[], Method[])} returns
+ * {@code null}.
+ */
+final class HiddenClassMemberInjector {
+
+    private static final int CLASS_FILE_VERSION = 59;
+
+    private static final @Nullable Method PRIVATE_LOOKUP_IN;
+    private static final @Nullable Method DEFINE_HIDDEN_CLASS;
+    private static final @Nullable Object NESTMATE;
+
+    static {
+        Method privateLookupIn = null;
+        Method defineHiddenClass = null;
+        Object nestmate = null;
+
+        try {
+            Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            nestmate = Array.newInstance(option, 1);
+            Array.set(nestmate, 0, option.getField("NESTMATE").get(null));
+
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class,
+                    MethodHandles.Lookup.class);
+            defineHiddenClass = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class,
+                    boolean.class, nestmate.getClass());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            privateLookupIn = null;
+            defineHiddenClass = null;
+            nestmate = null;
+        }
+
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+        NESTMATE = nestmate;
+    }
+
+    private final BiConsumer<Object, Object> fields;
+    private final ObjIntConsumer<Object> callbacks;
+    private final boolean[] assigned;
+    private final boolean[] callable;
+    private volatile boolean broken;
+
+    private HiddenClassMemberInjector(Object generated, boolean[] assigned, boolean[] callable) {
+        this.fields = cast(generated);
+        this.callbacks = cast(generated);
+        this.assigned = assigned;
+        this.callable = callable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object generated) {
+        return (T) generated;
+    }
+
+    static boolean isSupported() {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    /**
+     * @param fields    the injected fields of the type, in the order their values are passed to
+     *                  {@link #assign(Object, Object[])}
+     * @param callbacks the injection methods and lifecycle callbacks of the type, numbered as they are passed to
+     *                  {@link #call(Object, int)}
+     * @return an injector for the members of {@code type}, or {@code null} if no hidden class can be defined for it
+     */
+    static @Nullable HiddenClassMemberInjector generate(@NotNull Class<?> type,
+                                                       @NotNull Field[] fields,
+                                                       @NotNull Method[] callbacks) {
+        if (!isSupported() || type.isInterface() || type.isArray() || type.isPrimitive()
+                || type.getName().indexOf('/') >= 0) {
+            return null;
+        }
+
+        boolean[] assigned = new boolean[fields.length];
+        boolean[] callable = new boolean[callbacks.length];
+        boolean any = false;
+
+        for (int i = 0; i < fields.length; i++) {
+            assigned[i] = canAssign(type, fields[i]);
+            any |= assigned[i];
+        }
+
+        for (int i = 0; i < callbacks.length; i++) {
+            callable[i] = canCall(type, callbacks[i]);
+            any |= callable[i];
+        }
+
+        if (!any) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = new ClassWriter(type).write(fields, assigned, callbacks, callable);
+            Object lookup = PRIVATE_LOOKUP_IN.invoke(null, type, MethodHandles.lookup());
+            MethodHandles.Lookup hidden = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, true,
+                    NESTMATE);
+            Object generated = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+
+            return new HiddenClassMemberInjector(generated, assigned, callable);
+        } catch (VirtualMachineError e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    boolean assigns(int field) {
+        return assigned[field];
+    }
+
+    /**
+     * Assigns every generated field of {@code instance} from {@code values}, indexed like the fields the injector was
+     * generated for.
+     *
+     * @return whether the fields were assigned; if not, for instance because a value has the wrong type, none of the
+     * generated assignments should be relied on and every field is to be assigned the usual way
+     */
+    boolean assign(Object instance, Object[] values) {
+        if (broken) {
+            return false;
+        }
+
+        try {
+            fields.accept(instance, values);
+            return true;
+        } catch (LinkageError e) {
+            // A field type the hidden class cannot link; assigning runs no user code, so nothing else throws this.
+            broken = true;
+            return false;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Calls a generated callback, wrapping anything it throws in an {@link InvocationTargetException} as
+     * {@link Method#invoke(Object, Object...)} does.
+     *
+     * @return whether the callback was generated and called
+     */
+    boolean call(Object instance, int callback) throws InvocationTargetException {
+        if (!callable[callback]) {
+            return false;
+        }
+
+        try {
+            callbacks.accept(instance, callback);
+            return true;
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+    private static boolean canAssign(Class<?> type, Field field) {
+        int modifiers = field.getModifiers();
+
+        return field.getDeclaringClass() == type
+                && !Modifier.isStatic(modifiers)
+                && !Modifier.isFinal(modifiers)
+                && !field.getType().isPrimitive()
+                && isNameable(type, field.getType());
+    }
+
+    private static boolean canCall(Class<?> type, Method method) {
+        int modifiers = method.getModifiers();
+
+        return method.getDeclaringClass() == type
+                && !Modifier.isStatic(modifiers)
+                && !Modifier.isAbstract(modifiers)
+                && method.getParameterCount() == 0;
+    }
+
+    /**
+     * @return whether a class in the package of {@code type} can refer to {@code candidate} by name
+     */
+    private static boolean isNameable(Class<?> type, Class<?> candidate) {
+        while (candidate.isArray()) {
+            candidate = candidate.getComponentType();
+        }
+
+        if (candidate.isPrimitive()) {
+            return true;
+        }
+
+        // The class file access of a nested class is public if it was declared public or protected.
+        if ((candidate.getModifiers() & (Modifier.PUBLIC | Modifier.PROTECTED)) != 0) {
+            return true;
+        }
+
+        return candidate.getClassLoader() == type.getClassLoader()
+                && packageName(candidate).equals(packageName(type));
+    }
+
+    private static String packageName(Class<?> type) {
+        String name = type.getName();
+        int separator = name.lastIndexOf('.');
+
+        return separator < 0 ? "" : name.substring(0, separator);
+    }
+
+    /**
+     * Writes the hidden class. It extends {@link Object} and implements {@link BiConsumer}, assigning the fields, and
+     * {@link ObjIntConsumer}, calling the callback with the given number.
+     */
+    private static final class ClassWriter {
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+
+        private final Class<?> type;
+        private final String typeName;
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private final DataOutputStream poolOut = new DataOutputStream(pool);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int poolCount = 1;
+
+        private ClassWriter(Class<?> type) {
+            this.type = type;
+            this.typeName = internalName(type);
+        }
+
+        private byte[] write(Field[] fields, boolean[] assigned, Method[] callbacks, boolean[] callable)
+                throws IOException {
+            int thisClass = classEntry(typeName + "$$InfuseMembers");
+            int superClass = classEntry("java/lang/Object");
+            int biConsumer = classEntry("java/util/function/BiConsumer");
+            int objIntConsumer = classEntry("java/util/function/ObjIntConsumer");
+
+            ByteArrayOutputStream methods = new ByteArrayOutputStream();
+            DataOutputStream methodsOut = new DataOutputStream(methods);
+
+            writeMethod(methodsOut, "<init>", "()V", 1, 1, constructor(), null);
+            writeMethod(methodsOut, "accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", 3, 5,
+                    assignFields(fields, assigned), null);
+
+            Code calls = callCallbacks(callbacks, callable);
+            writeMethod(methodsOut, "accept", "(Ljava/lang/Object;I)V", 2, 3, calls.code, calls.frames);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_VERSION);
+            out.writeShort(poolCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(2);
+            out.writeShort(biConsumer);
+            out.writeShort(objIntConsumer);
+            out.writeShort(0);
+            out.writeShort(3);
+            methods.writeTo(out);
+            out.writeShort(0);
+
+            return bytes.toByteArray();
+        }
+
+        private byte[] constructor() throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(code);
+
+            out.writeByte(0x2a); // aload_0
+            out.writeByte(0xb7); // invokespecial
+            out.writeShort(memberEntry(10, "java/lang/Object", "<init>", "()V"));
+            out.writeByte(0xb1); // return
+
+            return code.toByteArray();
+        }
+
+        private byte[] assignFields(Field[] fields, boolean[] assigned) throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(code);
+
+            out.writeByte(0x2b); // aload_1
+            out.writeByte(0xc0); // checkcast
+            out.writeShort(classEntry(typeName));
+            out.writeByte(0x4e); // astore_3
+            out.writeByte(0x2c); // aload_2
+            out.writeByte(0xc0); // checkcast
+            out.writeShort(classEntry("[Ljava/lang/Object;"));
+            out.writeByte(0x3a); // astore
+            out.writeByte(4);
+
+            for (int i = 0; i < fields.length; i++) {
+                if (!assigned[i]) {
+                    continue;
+                }
+
+                Field field = fields[i];
+
+                out.writeByte(0x2d); // aload_3
+                out.writeByte(0x19); // aload
+                out.writeByte(4);
+                pushInt(out, i);
+                out.writeByte(0x32); // aaload
+
+                if (field.getType() != Object.class) {
+                    out.writeByte(0xc0); // checkcast
+                    out.writeShort(classEntry(internalName(field.getType())));
+                }
+
+                out.writeByte(0xb5); // putfield
+                out.writeShort(memberEntry(9, typeName, field.getName(), descriptor(field.getType())));
+            }
+
+            out.writeByte(0xb1); // return
+
+            return code.toByteArray();
+        }
+
+        private Code callCallbacks(Method[] callbacks, boolean[] callable) throws IOException {
+            ByteArrayOutputStream code = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(code);
+
+            if (callbacks.length == 0) {
+                out.writeByte(0xb1); // return
+                return new Code(code.toByteArray(), null);
+            }
+
+            out.writeByte(0x1c); // iload_2
+            out.writeByte(0xaa); // tableswitch
+
+            while (code.size() % 4 != 0) {
+                out.writeByte(0);
+            }
+
+            // Offsets are relative to the tableswitch opcode at 1; each case is 8 or 9 bytes, then the default.
+            int casesStart = code.size() + 12 + 4 * callbacks.length;
+            int[] starts = new int[callbacks.length];
+            int position = casesStart;
+
+            for (int i = 0; i < callbacks.length; i++) {
+                if (callable[i]) {
+                    starts[i] = position;
+                    position += callbacks[i].getReturnType() == void.class ? 8 : 9;
+                }
+            }
+
+            int defaultStart = position;
+
+            out.writeInt(defaultStart - 1);
+            out.writeInt(0);
+            out.writeInt(callbacks.length - 1);
+
+            for (int i = 0; i < callbacks.length; i++) {
+                out.writeInt((callable[i] ? starts[i] : defaultStart) - 1);
+            }
+
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            DataOutputStream framesOut = new DataOutputStream(frames);
+            int frameCount = 0;
+            int previous = -1;
+
+            for (int i = 0; i < callbacks.length; i++) {
+                if (!callable[i]) {
+                    continue;
+                }
+
+                Method callback = callbacks[i];
+                Class<?> returnType = callback.getReturnType();
+
+                sameFrame(framesOut, code.size() - previous - 1);
+                previous = code.size();
+                frameCount++;
+
+                out.writeByte(0x2b); // aload_1
+                out.writeByte(0xc0); // checkcast
+                out.writeShort(classEntry(typeName));
+                out.writeByte(0xb6); // invokevirtual
+                out.writeShort(memberEntry(10, typeName, callback.getName(), "()" + descriptor(returnType)));
+
+                if (returnType == long.class || returnType == double.class) {
+                    out.writeByte(0x58); // pop2
+                } else if (returnType != void.class) {
+                    out.writeByte(0x57); // pop
+                }
+
+                out.writeByte(0xb1); // return
+            }
+
+            sameFrame(framesOut, code.size() - previous - 1);
+            frameCount++;
+            out.writeByte(0xb1); // return
+
+            ByteArrayOutputStream table = new ByteArrayOutputStream();
+            DataOutputStream tableOut = new DataOutputStream(table);
+            tableOut.writeShort(frameCount);
+            frames.writeTo(tableOut);
+
+            return new Code(code.toByteArray(), table.toByteArray());
+        }
+
+        private static void sameFrame(DataOutputStream out, int offsetDelta) throws IOException {
+            if (offsetDelta < 64) {
+                out.writeByte(offsetDelta);
+            } else {
+                out.writeByte(251);
+                out.writeShort(offsetDelta);
+            }
+        }
+
+        private void writeMethod(DataOutputStream out,
+                                 String name,
+                                 String descriptor,
+                                 int maxStack,
+                                 int maxLocals,
+                                 byte[] code,
+                                 @Nullable byte[] stackMapTable) throws IOException {
+            int codeAttribute = utf8Entry("Code");
+            int stackMapAttribute = stackMapTable == null ? 0 : utf8Entry("StackMapTable");
+
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(utf8Entry(name));
+            out.writeShort(utf8Entry(descriptor));
+            out.writeShort(1);
+
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + code.length + (stackMapTable == null ? 0 : 6 + stackMapTable.length));
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+
+            if (stackMapTable == null) {
+                out.writeShort(0);
+                return;
+            }
+
+            out.writeShort(1);
+            out.writeShort(stackMapAttribute);
+            out.writeInt(stackMapTable.length);
+            out.write(stackMapTable);
+        }
+
+        private static void pushInt(DataOutputStream out, int value) throws IOException {
+            if (value <= 5) {
+                out.writeByte(0x03 + value); // iconst_<n>
+            } else if (value <= Byte.MAX_VALUE) {
+                out.writeByte(0x10); // bipush
+                out.writeByte(value);
+            } else {
+                out.writeByte(0x11); // sipush
+                out.writeShort(value);
+            }
+        }
+
+        private int utf8Entry(String value) throws IOException {
+            Integer existing = entries.get("U" + value);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            poolOut.writeByte(1);
+            poolOut.writeUTF(value);
+
+            return register("U" + value);
+        }
+
+        private int classEntry(String internalName) throws IOException {
+            Integer existing = entries.get("C" + internalName);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            int name = utf8Entry(internalName);
+            poolOut.writeByte(7);
+            poolOut.writeShort(name);
+
+            return register("C" + internalName);
+        }
+
+        /**
+         * @param tag 9 for a field reference, 10 for a method reference
+         */
+        private int memberEntry(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + owner + "." + name + descriptor;
+            Integer existing = entries.get(key);
+
+            if (existing != null) {
+                return existing;
+            }
+
+            int ownerClass = classEntry(owner);
+            int nameIndex = utf8Entry(name);
+            int descriptorIndex = utf8Entry(descriptor);
+
+            poolOut.writeByte(12);
+            poolOut.writeShort(nameIndex);
+            poolOut.writeShort(descriptorIndex);
+            int nameAndType = register("N" + key);
+
+            poolOut.writeByte(tag);
+            poolOut.writeShort(ownerClass);
+            poolOut.writeShort(nameAndType);
+
+            return register(key);
+        }
+
+        private int register(String key) {
+            int index = poolCount++;
+            entries.put(key, index);
+
+            return index;
+        }
+
+        private static String internalName(Class<?> type) {
+            return type.getName().replace('.', '/');
+        }
+
+        private static String descriptor(Class<?> type) {
+            if (type == void.class) {
+                return "V";
+            }
+
+            if (type.isPrimitive()) {
+                if (type == boolean.class) {
+                    return "Z";
+                }
+
+                if (type == long.class) {
+                    return "J";
+                }
+
+                return String.valueOf(Character.toUpperCase(type.getName().charAt(0)));
+            }
+
+            if (type.isArray()) {
+                return internalName(type);
+            }
+
+            return "L" + internalName(type) + ";";
+        }
+    }
+
+    private static final class Code {
+        private final byte[] code;
+        private final @Nullable byte[] frames;
+
+        private Code(byte[] code, @Nullable byte[] frames) {
+            this.code = code;
+            this.frames = frames;
+        }
+    }
+}
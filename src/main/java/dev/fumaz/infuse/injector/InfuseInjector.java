@@ -2,10 +2,17 @@ package dev.fumaz.infuse.injector;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -13,15 +20,20 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.IdentityHashMap;
-import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,16 +42,25 @@ import dev.fumaz.infuse.annotation.Inject;
 import dev.fumaz.infuse.annotation.PostConstruct;
 import dev.fumaz.infuse.annotation.PostInject;
 import dev.fumaz.infuse.annotation.PreDestroy;
+import dev.fumaz.infuse.annotation.Scope;
+import dev.fumaz.infuse.annotation.Singleton;
 import dev.fumaz.infuse.bind.Binding;
+import dev.fumaz.infuse.bind.BindingKey;
 import dev.fumaz.infuse.bind.BindingQualifier;
 import dev.fumaz.infuse.bind.BindingRegistry;
 import dev.fumaz.infuse.bind.BindingScope;
+import dev.fumaz.infuse.bind.Key;
 import dev.fumaz.infuse.exception.ConfigurationException;
 import dev.fumaz.infuse.exception.ProvisionException;
 import dev.fumaz.infuse.context.Context;
 import dev.fumaz.infuse.module.Module;
+import dev.fumaz.infuse.module.PackageBindingRules;
+import dev.fumaz.infuse.provider.ConstructingProvider;
+import dev.fumaz.infuse.provider.DelegatingProvider;
+import dev.fumaz.infuse.provider.ImmutableInstanceProvider;
 import dev.fumaz.infuse.provider.InstanceProvider;
 import dev.fumaz.infuse.provider.Provider;
+import dev.fumaz.infuse.provider.ProviderHandle;
 import dev.fumaz.infuse.provider.SingletonProvider;
 import dev.fumaz.infuse.scope.MemoizingProvider;
 import dev.fumaz.infuse.scope.ScopeProviders;
@@ -47,26 +68,88 @@ import dev.fumaz.infuse.util.InjectionUtils;
 
 public class InfuseInjector implements Injector {
 
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    // Returned while resolving a dependency whose construction was pushed onto a ConstructionTask stack instead.
+    private static final Object PENDING = new Object();
+    // The registry of children stamped from a template, which keep their instance bindings in InstanceSlots instead.
+    private static final BindingRegistry NO_BINDINGS = new BindingRegistry();
+    // Whether an unbound type declares a scope and so gets a just-in-time binding, which depends on the type alone.
+    private static final ClassValue<Boolean> SCOPED_TYPES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return PackageBindingRules.justInTime(type) != null;
+        }
+    };
+
+    static {
+        NO_BINDINGS.freeze();
+    }
+
     private final @Nullable Injector parent;
     private final @NotNull List<Module> modules;
-    private final @NotNull ConcurrentMap<Class<?>, InjectionPlan> injectionPlans;
-    private final @NotNull ConcurrentMap<Class<?>, ConstructorCache> constructorCaches;
-    private final @NotNull ConcurrentMap<Constructor<?>, ConstructorArgumentPlan> constructorArgumentPlans;
+    private final @NotNull InjectorOptions options;
+    // Plans are kept on the classes they describe, so injecting or constructing a class never keeps it loaded. They
+    // refer back to the injector only weakly; otherwise the class would keep the injector alive instead.
+    private final @NotNull ClassValue<InjectionPlan> injectionPlans;
+    private final @NotNull ClassValue<ConcurrentMap<Constructor<?>, ConstructorArgumentPlan>> constructorArgumentPlans;
     private final @NotNull BindingRegistry bindingRegistry;
     private final @NotNull List<Binding<?>> ownBindings;
+    // Bindings created on first use for unbound types that declare a scope. They are held by the injector rather than
+    // by the types, as their providers and instances lead back to it; types without a scope are never remembered here.
+    private final @NotNull ConcurrentMap<Class<?>, JustInTimeBinding> justInTimeBindings;
     private final @NotNull ScopedInstanceRegistry scopedInstances;
     private final @NotNull ResolutionScopes resolutionScopes;
+    private final @NotNull ResolutionTable resolutionTable;
+    // The injector whose plan caches this injector uses and whose injection points cache resolutions.
+    private final @NotNull InfuseInjector planOwner;
+    // The instances bound by a child stamped from a ChildTemplate; null for every other injector.
+    private final @Nullable InstanceSlots instanceSlots;
+    // Handed to the injection points of this injector's plans, which must not hold it strongly.
+    private final @NotNull WeakReference<InfuseInjector> reference;
 
     public InfuseInjector(@Nullable Injector parent, @NotNull List<Module> modules) {
+        this(parent, modules, parent instanceof InfuseInjector
+                ? ((InfuseInjector) parent).getOptions()
+                : InjectorOptions.defaults());
+    }
+
+    public InfuseInjector(@Nullable Injector parent, @NotNull List<Module> modules, @NotNull InjectorOptions options) {
+        this(parent, modules, options, Collections.emptyList());
+    }
+
+    /**
+     * @param additional bindings registered after those of the modules, such as the placeholders a
+     *                   {@link ChildTemplate} registers for the instances its children bind
+     */
+    InfuseInjector(@Nullable Injector parent,
+                   @NotNull List<Module> modules,
+                   @NotNull InjectorOptions options,
+                   @NotNull List<Binding<?>> additional) {
         this.parent = parent;
         this.modules = modules;
-        this.injectionPlans = new ConcurrentHashMap<>();
-        this.constructorCaches = new ConcurrentHashMap<>();
-        this.constructorArgumentPlans = new ConcurrentHashMap<>();
+        this.options = Objects.requireNonNull(options, "options");
+        this.injectionPlans = new ClassValue<InjectionPlan>() {
+            @Override
+            protected InjectionPlan computeValue(Class<?> type) {
+                return new InjectionPlan(planOwner, ClassMetadataCache.of(type));
+            }
+        };
+        this.constructorArgumentPlans = new ClassValue<ConcurrentMap<Constructor<?>, ConstructorArgumentPlan>>() {
+            @Override
+            protected ConcurrentMap<Constructor<?>, ConstructorArgumentPlan> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
         this.bindingRegistry = new BindingRegistry();
         this.ownBindings = new ArrayList<>();
+        this.justInTimeBindings = new ConcurrentHashMap<>();
         this.scopedInstances = new ScopedInstanceRegistry();
-        this.resolutionScopes = new ResolutionScopes(this);
+        this.resolutionScopes = new ResolutionScopes(this, options.getStage() == InjectorOptions.Stage.DEVELOPMENT);
+        this.resolutionTable = new ResolutionTable();
+        this.planOwner = this;
+        this.instanceSlots = null;
+        this.reference = new WeakReference<>(this);
 
         for (Module module : modules) {
             module.reset();
@@ -84,6 +167,10 @@ public class InfuseInjector implements Injector {
             }
         }
 
+        for (Binding<?> binding : additional) {
+            registerBinding(binding);
+        }
+
         registerBinding(new Binding<>(Injector.class, new InstanceProvider<>(this),
                 BindingQualifier.none(), BindingScope.INSTANCE, false));
 
@@ -97,6 +184,12 @@ public class InfuseInjector implements Injector {
                     BindingQualifier.none(), BindingScope.UNSCOPED, false));
         }
 
+        bindingRegistry.freeze();
+
+        if (options.getStage() == InjectorOptions.Stage.PRODUCTION) {
+            new GraphValidator(this).validate();
+        }
+
         List<EagerInstanceRecord> eagerSingletons = new ArrayList<>();
         Context<?> eagerContext = new Context<>(getClass(), this, this, ElementType.FIELD, "eager", new Annotation[0]);
 
@@ -120,7 +213,7 @@ public class InfuseInjector implements Injector {
         for (EagerInstanceRecord eagerSingleton : eagerSingletons) {
             Object singleton = eagerSingleton.instance();
             InjectionPlan plan = eagerSingleton.plan();
-            ResolutionScopeHandle scope = resolutionScopes.enter(singleton);
+            ResolutionScope scope = resolutionScopes.enter(singleton);
 
             try {
                 injectInjectionPoints(singleton);
@@ -129,23 +222,15 @@ public class InfuseInjector implements Injector {
                 resolutionScopes.exit(scope);
             }
 
-            for (Method method : plan.getPostInjectMethods()) {
-                PostInject annotation = method.getAnnotation(PostInject.class);
-                int priority = annotation == null ? 0 : annotation.priority();
-                postInjectInvocations.add(new PostInjectInvocation(singleton, method, priority));
+            for (MethodInjectionPoint method : plan.getPostInjectMethods()) {
+                postInjectInvocations.add(new PostInjectInvocation(singleton, method));
             }
         }
 
         postInjectInvocations.sort(Comparator.comparingInt(PostInjectInvocation::priority));
 
         for (PostInjectInvocation invocation : postInjectInvocations) {
-            try {
-                injectMethod(invocation.target(), invocation.method());
-            } catch (Exception e) {
-                System.err.println("Failed to eagerly inject method " + invocation.method().getName() + " in "
-                        + invocation.target().getClass().getName());
-                throw e;
-            }
+            injectMethod(invocation.target(), invocation.method());
         }
 
         for (EagerInstanceRecord eagerSingleton : eagerSingletons) {
@@ -153,14 +238,51 @@ public class InfuseInjector implements Injector {
         }
     }
 
+    /**
+     * Creates a child stamped from a {@link ChildTemplate}. It binds only the given instances and itself; every other
+     * binding, the plan caches, the resolution stack and just-in-time bindings are the template's.
+     */
+    private InfuseInjector(@NotNull InfuseInjector template, @NotNull InstanceSlots instanceSlots) {
+        this.parent = template;
+        this.modules = Collections.emptyList();
+        this.options = template.options;
+        this.injectionPlans = template.injectionPlans;
+        this.constructorArgumentPlans = template.constructorArgumentPlans;
+        this.bindingRegistry = NO_BINDINGS;
+        this.ownBindings = instanceSlots.bindings();
+        this.justInTimeBindings = template.justInTimeBindings;
+        this.scopedInstances = template.scopedInstances;
+        this.resolutionScopes = template.resolutionScopes;
+        // Anything a stamped child does not bind itself resolves exactly as it does in the template.
+        this.resolutionTable = template.resolutionTable;
+        this.planOwner = template.planOwner;
+        this.instanceSlots = instanceSlots;
+        this.reference = new WeakReference<>(this);
+    }
+
+    /**
+     * Stamps a child of this injector that binds the given instances to the template's instance keys, in order.
+     */
+    @NotNull InfuseInjector stamp(@NotNull BindingKey[] keys, @NotNull Object[] instances) {
+        InstanceSlots slots = new InstanceSlots(keys, instances);
+        InfuseInjector child = new InfuseInjector(this, slots);
+        slots.bindInjector(child);
+
+        return child;
+    }
+
     public void inject(@NotNull Object object) {
-        ResolutionScopeHandle scope = resolutionScopes.enter(object);
+        ResolutionScope scope = resolutionScopes.enter(object);
 
         try {
             injectWithinScope(object);
-        } finally {
+        } catch (RuntimeException | Error e) {
             resolutionScopes.exit(scope);
+            reportIfOutermost(e);
+            throw e;
         }
+
+        resolutionScopes.exit(scope);
     }
 
     private void injectWithinScope(@NotNull Object object) {
@@ -173,6 +295,19 @@ public class InfuseInjector implements Injector {
         Binding<?> scopedBinding = ScopeProviders.decorate(binding);
         bindingRegistry.add(scopedBinding);
         ownBindings.add(scopedBinding);
+        trackCreations(scopedBinding);
+    }
+
+    /**
+     * Records instances created by memoizing providers for shutdown at the moment they are created, so that later
+     * provisions of the same binding never touch the shutdown registry.
+     */
+    private <T> void trackCreations(@NotNull Binding<T> binding) {
+        Provider<T> provider = binding.getProvider();
+
+        if (provider instanceof MemoizingProvider && ScopeProviders.shouldTrackForShutdown(binding.getScope())) {
+            ((MemoizingProvider<T>) provider).onCreation(instance -> scopedInstances.append(binding, instance));
+        }
     }
 
     private void recordScopedInstance(@NotNull Binding<?> binding, @Nullable Object instance) {
@@ -186,7 +321,7 @@ public class InfuseInjector implements Injector {
             return;
         }
 
-        if (ownBindings.contains(binding) || !(parent instanceof InfuseInjector)) {
+        if (ownBindings.contains(binding) || isJustInTime(binding) || !(parent instanceof InfuseInjector)) {
             scopedInstances.record(binding, instance);
             return;
         }
@@ -215,19 +350,152 @@ public class InfuseInjector implements Injector {
     private <T> List<Binding<T>> resolveBindings(@NotNull Class<T> type,
                                                  @NotNull BindingQualifier qualifier,
                                                  @NotNull BindingScope scope) {
+        // Registries are frozen before an injector can resolve anything at runtime and every ancestor is frozen
+        // before its children exist, so a resolved result (including a miss) stays valid for the injector's lifetime.
+        if (!scope.isAny() || !bindingRegistry.isFrozen()) {
+            return resolveBindingsThroughChain(type, qualifier, scope);
+        }
+
+        return resolveBindings(BindingKey.lookup(type, qualifier));
+    }
+
+    private <T> List<Binding<T>> resolveBindings(@NotNull BindingKey lookupKey) {
+        List<Binding<T>> resolved = resolveExplicitBindings(lookupKey);
+
+        if (!resolved.isEmpty() || !bindingRegistry.isFrozen() || !lookupKey.getQualifier().isDefault()) {
+            return resolved;
+        }
+
+        return resolveJustInTimeBindings(lookupKey.getType());
+    }
+
+    private <T> List<Binding<T>> resolveExplicitBindings(@NotNull BindingKey lookupKey) {
+        return resolveExplicitBindings(lookupKey, true);
+    }
+
+    /**
+     * @param remember whether to remember the result in this injector's resolution table; lookups made on behalf of
+     *                 a child are only answered, so that a long-lived parent never holds keys of its children's classes
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<Binding<T>> resolveExplicitBindings(@NotNull BindingKey lookupKey, boolean remember) {
+        Class<T> type = (Class<T>) lookupKey.getType();
+
+        if (instanceSlots != null) {
+            List<Binding<T>> instance = instanceSlots.find(lookupKey);
+
+            if (instance != null) {
+                return instance;
+            }
+        }
+
+        if (!bindingRegistry.isFrozen()) {
+            return resolveBindingsThroughChain(type, lookupKey.getQualifier(), BindingScope.ANY);
+        }
+
+        List<Binding<T>> cached = resolutionTable.get(lookupKey);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Binding<T>> resolved = resolveBindingsThroughChain(type, lookupKey.getQualifier(), BindingScope.ANY);
+
+        if (remember) {
+            resolutionTable.put(lookupKey, resolved);
+        }
+
+        return resolved;
+    }
+
+    private <T> List<Binding<T>> resolveBindingsThroughChain(@NotNull Class<T> type,
+                                                             @NotNull BindingQualifier qualifier,
+                                                             @NotNull BindingScope scope) {
         List<Binding<T>> matches = bindingRegistry.find(type, qualifier, scope);
 
         if (!matches.isEmpty()) {
             return matches;
         }
 
+        if (instanceSlots != null) {
+            List<Binding<T>> instance = instanceSlots.find(BindingKey.lookup(type, qualifier));
+
+            if (instance != null && (scope.isAny() || instance.get(0).getScope().equals(scope))) {
+                return instance;
+            }
+        }
+
         if (parent instanceof InfuseInjector) {
-            return ((InfuseInjector) parent).resolveBindings(type, qualifier, scope);
+            InfuseInjector ancestor = (InfuseInjector) parent;
+
+            return scope.isAny()
+                    ? ancestor.resolveExplicitBindings(BindingKey.lookup(type, qualifier), false)
+                    : ancestor.resolveBindings(type, qualifier, scope);
         }
 
         return Collections.emptyList();
     }
 
+    /**
+     * Returns the binding for an unbound type that declares its scope with {@link Singleton} or a custom
+     * {@link Scope} annotation, creating it on first use so that later
+     * requests take the regular scoped path instead of constructing the type again. Just-in-time bindings belong to
+     * the injector that first needed them, so instances created for a child are released with the child; a child
+     * reuses the binding an ancestor already created instead of creating its own.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> List<Binding<T>> resolveJustInTimeBindings(@NotNull Class<?> type) {
+        if (!SCOPED_TYPES.get(type)) {
+            return Collections.emptyList();
+        }
+
+        JustInTimeBinding settled = justInTimeBindings.get(type);
+
+        if (settled == null) {
+            List<Binding<?>> inherited = findInheritedJustInTimeBinding(type);
+            JustInTimeBinding candidate = inherited != null
+                    ? new JustInTimeBinding(inherited, false)
+                    : new JustInTimeBinding(createJustInTimeBinding(type), true);
+            JustInTimeBinding raced = justInTimeBindings.putIfAbsent(type, candidate);
+
+            settled = raced != null ? raced : candidate;
+        }
+
+        return (List) settled.bindings;
+    }
+
+    private @Nullable List<Binding<?>> findInheritedJustInTimeBinding(@NotNull Class<?> type) {
+        for (Injector ancestor = parent; ancestor instanceof InfuseInjector;
+             ancestor = ((InfuseInjector) ancestor).parent) {
+            JustInTimeBinding settled = ((InfuseInjector) ancestor).justInTimeBindings.get(type);
+
+            if (settled != null) {
+                return settled.bindings;
+            }
+        }
+
+        return null;
+    }
+
+    private List<Binding<?>> createJustInTimeBinding(@NotNull Class<?> type) {
+        Binding<?> binding = PackageBindingRules.justInTime(type);
+
+        if (binding == null) {
+            return Collections.emptyList();
+        }
+
+        Binding<?> scopedBinding = ScopeProviders.decorate(binding);
+        trackCreations(scopedBinding);
+
+        return Collections.singletonList(scopedBinding);
+    }
+
+    private boolean isJustInTime(@NotNull Binding<?> binding) {
+        JustInTimeBinding settled = justInTimeBindings.get(binding.getType());
+
+        return settled != null && settled.created && settled.bindings.contains(binding);
+    }
+
     private void injectInjectionPoints(@NotNull Object object) {
         injectVariables(object);
         injectMethods(object);
@@ -235,45 +503,157 @@ public class InfuseInjector implements Injector {
 
     @Override
     public <T> T provide(@NotNull Class<T> type, @NotNull Context<?> context) {
-        ResolutionScopeHandle ownerScope = resolutionScopes.enter(context.getObject());
+        Annotation[] annotations = context.getAnnotations();
+        BindingKey lookupKey = BindingKey.lookup(type, InjectionUtils.resolveQualifier(annotations));
+        List<Binding<T>> matches = resolveBindings(lookupKey);
+        T initialised = getInitialisedInstance(matches);
+
+        if (initialised != null) {
+            return initialised;
+        }
+
+        return provideResolving(type, lookupKey, matches, InjectionUtils.isOptional(annotations), context);
+    }
+
+    private Object provide(@NotNull InjectionPoint point, @NotNull Object target) {
+        return provide(point, target, null);
+    }
+
+    /**
+     * Provides an injection point. When a work stack is given, a dependency that has to be constructed is pushed onto
+     * it as a {@link ConstructionTask} and {@link #PENDING} is returned instead.
+     */
+    @SuppressWarnings("unchecked")
+    private Object provide(@NotNull InjectionPoint point,
+                           @NotNull Object target,
+                           @Nullable List<ConstructionTask> stack) {
+        // Children stamped from a template share its injection points, whose caches hold what the template resolved:
+        // its own injector and the placeholders of the instances each child binds. Only the owner reads them.
+        boolean owned = point.isOwnedBy(this);
+        Object constant = owned ? point.cachedConstant() : null;
+
+        if (constant != null) {
+            return constant;
+        }
+
+        // Injection points belong to this injector's plans and its registry is frozen before anything is injected
+        // at runtime, so neither the resolved bindings nor an initialised instance can change afterwards.
+        boolean cacheable = owned && bindingRegistry.isFrozen();
+        List<Binding<Object>> matches = owned ? (List<Binding<Object>>) (List<?>) point.cachedBindings() : null;
+
+        if (matches == null) {
+            matches = resolveBindings(point.lookupKey());
+
+            if (cacheable) {
+                point.cacheBindings(matches);
+            }
+        }
+
+        Object initialised = getInitialisedInstance(matches);
+
+        if (initialised != null) {
+            if (cacheable) {
+                point.cacheConstant(initialised);
+            }
+
+            return initialised;
+        }
+
+        return provideResolving((Class<Object>) point.type(), point.lookupKey(), matches, point.isOptional(),
+                point.context(this, target), stack);
+    }
+
+    /**
+     * Returns the instance held by a single binding whose value is already fixed: an initialised singleton or a
+     * non-null instance binding. Such an instance can no longer take part in a cycle and was recorded for shutdown
+     * when it was first provided, so it can be returned without entering a resolution scope or allocating any
+     * bookkeeping.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> @Nullable T getInitialisedInstance(@NotNull List<Binding<T>> matches) {
+        if (matches.size() != 1) {
+            return null;
+        }
+
+        Provider<T> provider = matches.get(0).getProvider();
+
+        if (provider instanceof MemoizingProvider) {
+            return ((MemoizingProvider<T>) provider).getIfInitialised();
+        }
+
+        if (provider instanceof SingletonProvider) {
+            return ((SingletonProvider<T>) provider).getIfInitialised();
+        }
+
+        if (provider instanceof InstanceProvider) {
+            return ((InstanceProvider<T>) provider).getInstance();
+        }
+
+        if (provider instanceof ImmutableInstanceProvider) {
+            return ((ImmutableInstanceProvider<T>) provider).getInstance();
+        }
+
+        return null;
+    }
+
+    private <T> T provideResolving(@NotNull Class<T> type,
+                                   @NotNull BindingKey lookupKey,
+                                   @NotNull List<Binding<T>> matches,
+                                   boolean optional,
+                                   @NotNull Context<?> context) {
+        return provideResolving(type, lookupKey, matches, optional, context, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T provideResolving(@NotNull Class<T> type,
+                                   @NotNull BindingKey lookupKey,
+                                   @NotNull List<Binding<T>> matches,
+                                   boolean optional,
+                                   @NotNull Context<?> context,
+                                   @Nullable List<ConstructionTask> stack) {
+        BindingQualifier qualifier = lookupKey.getQualifier();
+        ResolutionScope ownerScope = resolutionScopes.enter(context.getObject());
         ProvisionFrame frame = null;
-        boolean optional = InjectionUtils.isOptional(context.getAnnotations());
+        boolean deferred = false;
+        Throwable failure = null;
 
         try {
-            BindingQualifier qualifier = InjectionUtils.resolveQualifier(context.getAnnotations());
-            Object existing = resolutionScopes.lookup(type);
+            Object existing = resolutionScopes.lookup(lookupKey, this);
 
             if (existing != null) {
-                if (resolutionScopes.isResolving(type, qualifier)) {
-                    resolutionScopes.detectExistingCycle(type, qualifier, context);
+                if (resolutionScopes.isResolving(lookupKey)) {
+                    resolutionScopes.detectExistingCycle(lookupKey, context);
                 }
 
                 return type.cast(existing);
             }
 
-            List<Binding<T>> matches = resolveBindings(type, qualifier, BindingScope.ANY);
-
             if (matches.isEmpty() && optional) {
                 return null;
             }
 
-            if (matches.size() > 1) {
-                boolean allCollections = matches.stream().allMatch(Binding::isCollectionContribution);
+            requireUnambiguous(type, qualifier, matches);
 
-                if (allCollections) {
-                    throw new IllegalStateException("Collection bindings are not yet supported for type "
-                            + type.getName() + (qualifier.isDefault() ? "" : " qualified by " + qualifier));
-                }
+            frame = resolutionScopes.begin(lookupKey, context);
+
+            Binding<T> binding = matches.isEmpty() ? null : matches.get(0);
 
-                throw new IllegalStateException("Multiple bindings found for " + type.getName()
-                        + (qualifier.isDefault() ? "" : " qualified by " + qualifier));
+            if (frame != null) {
+                frame.attachBinding(binding);
             }
 
-            frame = resolutionScopes.begin(type, qualifier, context);
+            if (stack != null && (binding == null || binding.getProvider() instanceof ConstructingProvider)) {
+                Class<?> implementation = binding == null
+                        ? type
+                        : ((ConstructingProvider<?>) binding.getProvider()).getImplementation();
+                Constructor<?> constructor = resolveConstructor(implementation);
 
-            Binding<T> binding = matches.isEmpty() ? null : matches.get(0);
+                stack.add(new ConstructionTask(constructor, NO_ARGUMENTS, false,
+                        new PendingResolution(lookupKey, binding, ownerScope, frame)));
+                deferred = true;
 
-            frame.attachBinding(binding);
+                return (T) PENDING;
+            }
 
             T instance = binding != null
                     ? binding.getProvider().provide(context)
@@ -283,98 +663,214 @@ public class InfuseInjector implements Injector {
                 if (optional) {
                     return null;
                 }
-            } else if (binding != null) {
+            } else if (binding != null && !(binding.getProvider() instanceof MemoizingProvider)) {
+                // Memoized instances are recorded by the provider's creation listener.
                 recordScopedInstance(binding, instance);
             }
 
-            resolutionScopes.record(type, instance);
+            resolutionScopes.record(lookupKey, instance);
 
             return instance;
-        } catch (Exception e) {
-            System.err.println("Failed to provide " + type.getName());
+        } catch (RuntimeException | Error e) {
+            failure = e;
             throw e;
         } finally {
-            if (frame != null) {
-                resolutionScopes.end(frame);
+            if (!deferred) {
+                if (frame != null) {
+                    resolutionScopes.end(frame);
+                }
+
+                resolutionScopes.exit(ownerScope);
+
+                if (failure != null) {
+                    reportIfOutermost(failure);
+                }
             }
+        }
+    }
+
+    private void requireUnambiguous(@NotNull Class<?> type,
+                                    @NotNull BindingQualifier qualifier,
+                                    @NotNull List<? extends Binding<?>> matches) {
+        if (matches.size() <= 1) {
+            return;
+        }
+
+        boolean allCollections = matches.stream().allMatch(Binding::isCollectionContribution);
 
-            resolutionScopes.exit(ownerScope);
+        if (allCollections) {
+            throw new IllegalStateException("Collection bindings are not yet supported for type "
+                    + type.getName() + (qualifier.isDefault() ? "" : " qualified by " + qualifier));
         }
+
+        throw new IllegalStateException("Multiple bindings found for " + type.getName()
+                + (qualifier.isDefault() ? "" : " qualified by " + qualifier));
     }
 
     @Override
     public <T> @Nullable T provide(@NotNull Class<T> type, @NotNull Object calling) {
+        return provide(type, BindingKey.lookup(type, BindingQualifier.none()), calling);
+    }
+
+    @Override
+    public <T> @Nullable T provide(@NotNull Key<T> key, @NotNull Object calling) {
+        return provide(key.getType(), key.getBindingKey(), calling);
+    }
+
+    private <T> @Nullable T provide(@NotNull Class<T> type, @NotNull BindingKey lookupKey, @NotNull Object calling) {
+        List<Binding<T>> matches = resolveBindings(lookupKey);
+        T initialised = getInitialisedInstance(matches);
+
+        if (initialised != null) {
+            return initialised;
+        }
+
         Context<?> context = new Context<>(calling.getClass(), calling, this, ElementType.FIELD, "field",
-                new Annotation[0]);
+                NO_ANNOTATIONS);
 
-        return provide(type, context);
+        return provideResolving(type, lookupKey, matches, false, context);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T construct(@NotNull Class<T> type, @NotNull Object... args) {
         Constructor<T> constructor = resolveConstructor(type, args);
-        constructor.setAccessible(true);
-
-        try {
-            T t = constructor.newInstance(getConstructorArguments(constructor, args));
-
-            ResolutionScopeHandle scope = resolutionScopes.enter(t);
-
-            try {
-                injectWithinScope(t);
-            } finally {
-                resolutionScopes.exit(scope);
-            }
 
-            return t;
-        } catch (Exception e) {
-            System.err.println("Failed to construct " + type.getName());
-            e.printStackTrace();
-            throw new ProvisionException("Failed to construct " + type.getName(), e);
-        }
+        return (T) construct(new ConstructionTask(constructor, args, false, null));
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T constructWithoutInjecting(@NotNull Class<T> type, @NotNull Object... args) {
         Constructor<T> constructor = resolveConstructor(type, args);
-        constructor.setAccessible(true);
 
         try {
-            T t = constructor.newInstance(getConstructorArguments(constructor, args));
+            ConstructorArgumentPlan plan = getConstructorArgumentPlan(constructor);
 
-            return t;
+            return (T) plan.newInstance(plan.resolve(this, args));
         } catch (Exception e) {
-            System.err.println("Failed to construct without injecting " + type.getName());
-            e.printStackTrace();
-            throw new ProvisionException("Failed to construct without injecting " + type.getName(), e);
+            throw provisionFailure(e, "Failed to construct without injecting " + type.getName());
         }
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T construct(@NotNull Constructor<T> constructor) {
-        constructor.setAccessible(true);
+        return (T) construct(new ConstructionTask(constructor, NO_ARGUMENTS, true, null));
+    }
 
-        try {
-            T instance = constructor.newInstance(getConstructorArguments(constructor));
+    /**
+     * Runs a construction and every construction it depends on from an explicit work stack. Dependencies that are
+     * constructed by this injector, unbound types and unscoped {@link ConstructingProvider} bindings, become tasks on
+     * the stack instead of recursive calls, so the depth of an object graph does not grow the call stack. Other
+     * providers are still called directly.
+     */
+    private Object construct(@NotNull ConstructionTask root) {
+        if (options.getStage() == InjectorOptions.Stage.PRODUCTION) {
+            try {
+                validateConstruction(root);
+            } catch (ConfigurationException e) {
+                Throwable failure = root.fail(this, e);
+                reportIfOutermost(failure);
+                throw ConstructionTask.rethrow(failure);
+            }
+        }
 
-            ResolutionScopeHandle scope = resolutionScopes.enter(instance);
+        List<ConstructionTask> stack = new ArrayList<>();
+        stack.add(root);
+
+        Object value = null;
+        boolean delivering = false;
+        Throwable failure = null;
+
+        while (true) {
+            ConstructionTask task = stack.get(stack.size() - 1);
+
+            if (failure != null) {
+                failure = task.fail(this, failure);
+                stack.remove(stack.size() - 1);
+
+                if (stack.isEmpty()) {
+                    reportIfOutermost(failure);
+                    throw ConstructionTask.rethrow(failure);
+                }
+
+                continue;
+            }
 
             try {
-                injectWithinScope(instance);
-            } finally {
-                resolutionScopes.exit(scope);
+                if (delivering) {
+                    delivering = false;
+                    task.accept(value);
+                }
+
+                if (!task.advance(this, stack)) {
+                    continue;
+                }
+
+                value = task.complete(this);
+            } catch (Throwable t) {
+                failure = t;
+                continue;
             }
 
-            return instance;
-        } catch (Exception e) {
-            System.err.println("Failed to construct via constructor " + constructor.toGenericString());
-            e.printStackTrace();
-            throw new ProvisionException("Failed to construct via constructor " + constructor.toGenericString(), e);
+            stack.remove(stack.size() - 1);
+
+            if (stack.isEmpty()) {
+                return value;
+            }
+
+            delivering = true;
+        }
+    }
+
+    /**
+     * Validates the dependencies of a construction started from outside the work stack the first time they are
+     * reached. The graph validated when a production injector is created only reaches the types its bindings
+     * construct, and provisions no longer track cycles, so a cycle between unbound types would otherwise construct
+     * forever. Constructions pushed onto the work stack are reached from their root, so each root is enough.
+     *
+     * @throws ConfigurationException if the dependencies of the construction cannot be resolved or form a cycle
+     */
+    private void validateConstruction(@NotNull ConstructionTask root) {
+        ConstructorArgumentPlan plan = getConstructorArgumentPlan(root.constructor);
+        InjectionPlan injection = getInjectionPlan(root.constructor.getDeclaringClass());
+        int[] mapping = plan.mapping(root.provided);
+        List<ConstructorParameter> parameters = new ArrayList<>();
+        List<InjectionPoint> dependencies = new ArrayList<>();
+
+        for (int i = 0; i < plan.parameters.length; i++) {
+            ConstructorParameter parameter = plan.parameters[i];
+            boolean provided = mapping.length > i && mapping[i] >= 0 && mapping[i] < root.provided.length;
+
+            if (!provided && !parameter.validated) {
+                parameters.add(parameter);
+                dependencies.add(parameter.point);
+            }
+        }
+
+        if (!injection.validated) {
+            injection.addDependencies(dependencies);
+        }
+
+        if (!dependencies.isEmpty()) {
+            new GraphValidator(planOwner).validate(root.constructor.getDeclaringClass(), dependencies);
+        }
+
+        for (ConstructorParameter parameter : parameters) {
+            parameter.validated = true;
         }
+
+        injection.validated = true;
     }
 
     @Override
     public void destroy() {
         ScopeProviders.shutdown(this);
 
+        // A stamped child owns nothing but its instances, which it does not inject and so does not destroy.
+        if (instanceSlots != null) {
+            return;
+        }
+
         List<ScopedInstanceEntry> recorded = scopedInstances.drain();
         Collections.reverse(recorded);
 
@@ -396,6 +892,46 @@ public class InfuseInjector implements Injector {
         return getBindingOrThrow(type).getProvider();
     }
 
+    @Override
+    public <T> @Nullable Provider<T> getProvider(@NotNull Key<T> key) {
+        return getBindingOrThrow(key).getProvider();
+    }
+
+    @Override
+    public <T> @NotNull ProviderHandle<T> handle(@NotNull Key<T> key) {
+        Class<T> type = key.getType();
+        BindingKey lookupKey = key.getBindingKey();
+        List<Binding<T>> matches = resolveBindings(lookupKey);
+        requireUnambiguous(type, lookupKey.getQualifier(), matches);
+
+        if (matches.isEmpty()) {
+            return () -> construct(type);
+        }
+
+        T initialised = getInitialisedInstance(matches);
+
+        if (initialised != null) {
+            return () -> initialised;
+        }
+
+        Binding<T> binding = matches.get(0);
+        Provider<T> provider = binding.getProvider();
+        Context<T> context = new Context<>(type, this, this, ElementType.TYPE, "handle", NO_ANNOTATIONS);
+
+        // Singletons and instances tracked for shutdown are created through the regular path once, so that cycles
+        // are detected and the instance is recorded; every other binding is called directly.
+        if (provider instanceof MemoizingProvider || provider instanceof SingletonProvider
+                || ScopeProviders.shouldTrackForShutdown(binding.getScope())) {
+            return () -> {
+                T instance = getInitialisedInstance(matches);
+
+                return instance != null ? instance : provideResolving(type, lookupKey, matches, false, context);
+            };
+        }
+
+        return () -> provider.provide(context);
+    }
+
     @Override
     public @Nullable Injector getParent() {
         return parent;
@@ -403,7 +939,11 @@ public class InfuseInjector implements Injector {
 
     @Override
     public @NotNull Injector child(@NotNull List<Module> modules) {
-        return new InfuseInjector(this, modules);
+        return new InfuseInjector(this, modules, options);
+    }
+
+    public @NotNull InjectorOptions getOptions() {
+        return options;
     }
 
     @Override
@@ -445,37 +985,43 @@ public class InfuseInjector implements Injector {
     }
 
     public <T> @NotNull Binding<T> getBindingOrThrow(@NotNull Class<T> type) {
-        Binding<T> binding = getBindingOrNull(type);
+        return getBindingOrThrow(Key.of(type));
+    }
+
+    public <T> @NotNull Binding<T> getBindingOrThrow(@NotNull Key<T> key) {
+        Binding<T> binding = getBindingOrNull(key);
 
         if (binding == null) {
-            throw new ConfigurationException("No binding found for " + type.getName());
+            throw new ConfigurationException("No binding found for " + key);
         }
 
         return binding;
     }
 
     public <T> @Nullable Binding<T> getBindingOrNull(@NotNull Class<T> type) {
-        List<Binding<T>> bindings = resolveBindings(type, BindingQualifier.none(), BindingScope.ANY);
+        return getBindingOrNull(Key.of(type));
+    }
+
+    public <T> @Nullable Binding<T> getBindingOrNull(@NotNull Key<T> key) {
+        List<Binding<T>> bindings = resolveBindings(key.getBindingKey());
 
         if (bindings.isEmpty()) {
             return null;
         }
 
         if (bindings.size() > 1) {
-            throw new IllegalStateException("Multiple bindings found for " + type.getName());
+            throw new IllegalStateException("Multiple bindings found for " + key);
         }
 
         return bindings.get(0);
     }
 
     public <T> Constructor<T> findSuitableConstructor(Class<T> clazz, Object... args) {
-        ConstructorCache cache = constructorCaches.computeIfAbsent(clazz, ConstructorCache::new);
-        return cache.findSuitableConstructor(this, args);
+        return ClassMetadataCache.constructors(clazz).findSuitableConstructor(this, args);
     }
 
     private <T> Constructor<T> resolveConstructor(Class<T> type, Object... args) {
-        ConstructorCache cache = constructorCaches.computeIfAbsent(type, ConstructorCache::new);
-        return cache.resolve(this, args);
+        return ClassMetadataCache.constructors(type).resolve(this, args);
     }
 
     private boolean isConstructorCompatible(Constructor<?> constructor, Object... args) {
@@ -530,222 +1076,287 @@ public class InfuseInjector implements Injector {
         return distance;
     }
 
-    private @NotNull Object[] getConstructorArguments(@NotNull Constructor<?> constructor, Object... provided) {
-        ConstructorArgumentPlan plan = constructorArgumentPlans.computeIfAbsent(constructor, this::buildConstructorArgumentPlan);
-        return plan.resolve(this, provided);
+    private ConstructorArgumentPlan getConstructorArgumentPlan(@NotNull Constructor<?> constructor) {
+        ConcurrentMap<Constructor<?>, ConstructorArgumentPlan> plans =
+                constructorArgumentPlans.get(constructor.getDeclaringClass());
+        ConstructorArgumentPlan plan = plans.get(constructor);
+
+        return plan != null ? plan : plans.computeIfAbsent(constructor, this::buildConstructorArgumentPlan);
     }
 
     private ConstructorArgumentPlan buildConstructorArgumentPlan(@NotNull Constructor<?> constructor) {
-        return ConstructorArgumentPlan.create(this, constructor);
+        return ConstructorArgumentPlan.create(planOwner, ClassMetadataCache.parameters(constructor));
     }
 
     private void injectVariables(Object object) {
-        getInjectionPlan(object.getClass())
-                .getInjectableFields()
-                .forEach(field -> {
-                    try {
-                        Annotation[] annotations = field.getAnnotations();
-                        boolean optional = InjectionUtils.isOptional(annotations);
-                        Object value = provide(field.getType(), new Context<>(object.getClass(), object, this,
-                                ElementType.FIELD, field.getName(), annotations));
-
-                        if (value == null && optional) {
-                            if (field.getType().isPrimitive()) {
-                                return;
-                            }
-
-                            field.set(object, null);
-                            return;
-                        }
-
-                        field.set(object, value);
-                    } catch (Exception e) {
-                        String message = "Failed to inject field " + field.getName() + " in "
-                                + object.getClass().getName();
-                        System.err.println(message);
-                        throw new ProvisionException(message, e);
-                    }
-                });
-    }
+        InjectionPlan plan = getInjectionPlan(object.getClass());
+        FieldInjectionPoint[] fields = plan.getFields();
+        Object[] generated = plan.newGeneratedValues();
 
-    private void injectMethods(Object object) {
-        getInjectionPlan(object.getClass())
-                .getInjectableMethods()
-                .forEach(method -> {
-                    try {
-                        injectMethod(object, method);
-                    } catch (Exception e) {
-                        String message = "Failed to inject method " + method.getName() + " in "
-                                + object.getClass().getName();
-                        System.err.println(message);
-                        throw new ProvisionException(message, e);
-                    }
-                });
-    }
+        for (int i = 0; i < fields.length; i++) {
+            FieldInjectionPoint point = fields[i];
 
-    private void preDestroy(Object object) {
-        getInjectionPlan(object.getClass())
-                .getPreDestroyMethods()
-                .forEach(method -> {
-                    try {
-                        injectMethod(object, method);
-                    } catch (Exception e) {
-                        String message = "Failed to call pre-destroy method " + method.getName() + " in "
-                                + object.getClass().getName();
-                        System.err.println(message);
-                        throw new ProvisionException(message, e);
-                    }
-                });
-    }
+            try {
+                Object value = provide(point.dependency(), object);
 
-    private void postInject(Object object) {
-        getInjectionPlan(object.getClass())
-                .getPostInjectMethods()
-                .forEach(method -> {
-                    try {
-                        injectMethod(object, method);
-                    } catch (Exception e) {
-                        String message = "Failed to call post-inject method " + method.getName() + " in "
-                                + object.getClass().getName();
-                        System.err.println(message);
-                        throw new ProvisionException(message, e);
-                    }
-                });
-    }
+                if (generated != null && point.isGenerated()) {
+                    generated[i] = value;
+                } else {
+                    point.assign(object, value);
+                }
+            } catch (Exception e) {
+                throw fieldFailure(e, point, object);
+            }
+        }
 
-    private void postConstruct(Object object) {
-        getInjectionPlan(object.getClass())
-                .getPostConstructMethods()
-                .forEach(method -> {
-                    try {
-                        injectMethod(object, method);
-                    } catch (Exception e) {
-                        String message = "Failed to call post-construct method " + method.getName() + " in "
-                                + object.getClass().getName();
-                        System.err.println(message);
-                        throw new ProvisionException(message, e);
-                    }
-                });
+        if (generated != null) {
+            assignGenerated(object, plan, generated);
+        }
     }
 
-    private void injectMethod(Object object, Method method) {
+    /**
+     * Assigns the fields a plan's hidden class injector covers from the values resolved for them. If the hidden class
+     * cannot assign them, they are assigned one at a time, so that a failure names its field.
+     */
+    private static void assignGenerated(Object object, InjectionPlan plan, Object[] values) {
+        if (plan.members.assign(object, values)) {
+            return;
+        }
+
+        FieldInjectionPoint[] fields = plan.getFields();
+
+        for (int i = 0; i < fields.length; i++) {
+            if (!fields[i].isGenerated()) {
+                continue;
+            }
+
+            try {
+                fields[i].assign(object, values[i]);
+            } catch (Exception e) {
+                throw fieldFailure(e, fields[i], object);
+            }
+        }
+    }
+
+    private static ProvisionException fieldFailure(Exception failure, FieldInjectionPoint point, Object object) {
+        return injectionFailure(failure, point.dependency(), "Failed to inject field " + point.field().getName()
+                + " in " + object.getClass().getName());
+    }
+
+    private void injectMethods(Object object) {
+        invokeAll(object, getInjectionPlan(object.getClass()).getMethods(), "Failed to inject method ");
+    }
+
+    private void preDestroy(Object object) {
+        invokeAll(object, getInjectionPlan(object.getClass()).getPreDestroyMethods(),
+                "Failed to call pre-destroy method ");
+    }
+
+    private void postInject(Object object) {
+        invokeAll(object, getInjectionPlan(object.getClass()).getPostInjectMethods(),
+                "Failed to call post-inject method ");
+    }
+
+    private void postConstruct(Object object) {
+        invokeAll(object, getInjectionPlan(object.getClass()).getPostConstructMethods(),
+                "Failed to call post-construct method ");
+    }
+
+    private void invokeAll(Object object, MethodInjectionPoint[] methods, String failure) {
+        for (MethodInjectionPoint method : methods) {
+            try {
+                injectMethod(object, method);
+            } catch (Exception e) {
+                throw provisionFailure(e, failure + method.getName() + " in " + object.getClass().getName());
+            }
+        }
+    }
+
+    private void injectMethod(Object object, MethodInjectionPoint method) {
         try {
             method.invoke(object, getMethodArguments(method));
         } catch (Exception e) {
-            String message = "Failed to inject method " + method.getName() + " in " + object.getClass().getName();
-            System.err.println(message);
-            throw new ProvisionException(message, e);
+            throw provisionFailure(e, "Failed to inject method " + method.getName() + " in "
+                    + object.getClass().getName());
+        }
+    }
+
+    /**
+     * Wraps a failure escaping an injection point, unless it already carries a {@link ProvisionException}, in which
+     * case that exception is reused so that a failure is only captured once however deep it started.
+     */
+    private static ProvisionException provisionFailure(Throwable failure, String message) {
+        if (failure instanceof ProvisionException) {
+            return (ProvisionException) failure;
+        }
+
+        return new ProvisionException(message, failure);
+    }
+
+    /**
+     * As {@link #provisionFailure(Throwable, String)}, recording the injection point on the resolution path.
+     */
+    private static ProvisionException injectionFailure(Throwable failure, InjectionPoint point, String message) {
+        ProvisionException provisionFailure = provisionFailure(failure, message);
+        provisionFailure.addResolutionStep(point.describe());
+
+        return provisionFailure;
+    }
+
+    /**
+     * Hands a failure to the configured {@link DiagnosticsSink} once it is about to leave the injector, so that a
+     * failure is reported once rather than at every level it unwinds through. Every failure is, whether or not it was
+     * wrapped in a {@link ProvisionException}: a cycle or an ambiguity met by the outermost provision escapes as is.
+     */
+    private void reportIfOutermost(Throwable failure) {
+        if (!resolutionScopes.isIdle()) {
+            return;
+        }
+
+        try {
+            options.getDiagnostics().provisionFailed(failure);
+        } catch (RuntimeException ignored) {
+            // A failing sink must not replace the provisioning failure.
         }
     }
 
     private InjectionPlan getInjectionPlan(Class<?> clazz) {
-        return injectionPlans.computeIfAbsent(clazz, InjectionPlan::new);
+        return injectionPlans.get(clazz);
     }
 
-    private @NotNull Object[] getMethodArguments(@NotNull Method method) {
-        return Arrays.stream(method.getParameters())
-                .map(parameter -> {
-                    Annotation[] annotations = parameter.getAnnotations();
-                    boolean optional = InjectionUtils.isOptional(annotations);
+    private @NotNull Object[] getMethodArguments(@NotNull MethodInjectionPoint method) {
+        InjectionPoint[] parameters = method.parameters();
 
-                    if (optional && parameter.getType().isPrimitive()) {
-                        throw new IllegalArgumentException("Optional method parameter " + parameter.getName()
-                                + " in " + method.getDeclaringClass().getName()
-                                + " cannot target primitive type " + parameter.getType().getName());
-                    }
+        if (parameters.length == 0) {
+            return NO_ARGUMENTS;
+        }
 
-                    Object value = provide(parameter.getType(),
-                            new Context<>(method.getDeclaringClass(), this, this, ElementType.METHOD, parameter.getName(),
-                                    annotations));
+        Object[] arguments = new Object[parameters.length];
 
-                    if (optional && value == null) {
-                        return null;
-                    }
+        for (int i = 0; i < parameters.length; i++) {
+            InjectionPoint parameter = parameters[i];
+
+            if (parameter.isOptional() && parameter.isPrimitive()) {
+                throw new IllegalArgumentException("Optional method parameter " + parameter.name()
+                        + " in " + parameter.declaringType().getName()
+                        + " cannot target primitive type " + parameter.type().getName());
+            }
+
+            try {
+                arguments[i] = provide(parameter, this);
+            } catch (RuntimeException e) {
+                throw injectionFailure(e, parameter, "Failed to inject method " + method.getName() + " in "
+                        + parameter.declaringType().getName());
+            }
+        }
 
-                    return value;
-                })
-                .toArray();
+        return arguments;
     }
 
     private static final class ResolutionScopes {
 
         private final ThreadLocal<ResolutionScopeState> state;
-
-        private ResolutionScopes(InfuseInjector root) {
-            this.state = ThreadLocal.withInitial(() -> ResolutionScopeState.create(root));
+        private final InfuseInjector root;
+        private final BindingKey[] rootKeys;
+        private final boolean tracking;
+
+        /**
+         * The per-thread states never reference the root injector: a thread-local value that reached its injector
+         * would reach the thread-local itself, and keep a destroyed child injector, and the class loader of every class
+         * it provisioned, alive for as long as the thread that used it.
+         *
+         * @param tracking whether to track the resolution path for cycle detection; injectors whose graph was
+         *                 validated up front skip it
+         */
+        private ResolutionScopes(InfuseInjector root, boolean tracking) {
+            this.state = ThreadLocal.withInitial(ResolutionScopeState::create);
+            this.root = root;
+            this.rootKeys = AssignableKeys.of(root.getClass(), BindingQualifier.none());
+            this.tracking = tracking;
         }
 
-        private ResolutionScopeHandle enter(Object owner) {
+        private ResolutionScope enter(Object owner) {
             ResolutionScopeState state = currentState();
-            ResolutionScope current = state.stack.peek();
+            ResolutionScope current = state.current();
 
-            if (current != null && current.isOwner(owner)) {
+            if (current.isRoot() ? owner == root : current.isOwner(owner)) {
                 current.retain();
-                return new ResolutionScopeHandle(state, current, false, null);
+                return current;
             }
 
-            ResolutionScope scope = ResolutionScope.object(owner);
-            scope.store(owner.getClass(), owner);
-            ResolutionRequest ownerRequest = registerOwner(state, owner);
-            state.stack.push(scope);
-
-            return new ResolutionScopeHandle(state, scope, true, ownerRequest);
-        }
-
-        private void exit(ResolutionScopeHandle handle) {
-            ResolutionScopeState state = handle.state;
-            ResolutionScope scope = handle.scope;
+            ResolutionScope scope = state.push(owner);
+            state.resolved.push(AssignableKeys.of(owner.getClass(), BindingQualifier.none()), owner);
 
-            if (scope.isRoot()) {
-                return;
+            if (tracking) {
+                scope.ownerRequest = registerOwner(state, owner);
             }
 
-            if (!handle.newScope) {
-                scope.release();
+            return scope;
+        }
+
+        private void exit(ResolutionScope scope) {
+            if (!scope.release() || scope.isRoot()) {
                 return;
             }
 
-            Deque<ResolutionScope> stack = state.stack;
+            ResolutionScopeState state = scope.state;
 
-            if (stack.peek() != scope) {
+            if (state.current() != scope) {
                 throw new IllegalStateException("Scope mismatch while exiting dependency scope");
             }
 
-            if (scope.release()) {
-                stack.pop();
-            }
+            ResolutionRequest ownerRequest = scope.ownerRequest;
+            state.pop();
 
-            if (handle.ownerRequest != null) {
-                unregisterOwner(state, handle.ownerRequest);
+            if (ownerRequest != null) {
+                unregisterOwner(state, ownerRequest);
             }
         }
 
-        private Object lookup(Class<?> type) {
+        /**
+         * @return whether no resolution is in progress on this thread, so a failure unwinding here leaves the injector
+         */
+        private boolean isIdle() {
             ResolutionScopeState state = currentState();
 
-            for (ResolutionScope scope : state.stack) {
-                Object candidate = scope.lookup(type);
+            return state.top == 0 && state.current().depth == 0;
+        }
+
+        /**
+         * @param requester the injector resolving the key: the root, or a child stamped from it that shares its scopes
+         */
+        private @Nullable Object lookup(BindingKey lookupKey, InfuseInjector requester) {
+            Object instance = currentState().resolved.get(lookupKey);
+
+            if (instance != null) {
+                return instance;
+            }
 
-                if (candidate != null) {
-                    return candidate;
+            // The requesting injector sits beneath every frame, so it is only found once nothing resolved shadows it.
+            // Stamped children are of the root's class, so the root's keys are theirs as well.
+            for (BindingKey rootKey : rootKeys) {
+                if (rootKey == lookupKey) {
+                    return requester;
                 }
             }
 
             return null;
         }
 
-        private ProvisionFrame begin(Class<?> type, BindingQualifier qualifier, Context<?> context) {
+        private @Nullable ProvisionFrame begin(BindingKey lookupKey, Context<?> context) {
+            if (!tracking) {
+                return null;
+            }
+
             ResolutionScopeState state = currentState();
-            ResolutionRequest request = new ResolutionRequest(type, qualifier, context);
-            ResolutionKey key = request.key();
-            int depth = state.inProgress.getOrDefault(key, 0);
+            ResolutionRequest request = new ResolutionRequest(lookupKey, context);
 
-            if (depth > 0) {
+            if (state.inProgress.get(request.key()) > 0) {
                 throwCycle(state, request);
             }
 
             state.path.push(request);
-            state.inProgress.put(key, depth + 1);
+            state.inProgress.increment(request.key());
 
             return new ProvisionFrame(request);
         }
@@ -753,14 +1364,7 @@ public class InfuseInjector implements Injector {
         private void end(ProvisionFrame frame) {
             ResolutionScopeState state = currentState();
             ResolutionRequest request = frame.request();
-            ResolutionKey key = request.key();
-            int depth = state.inProgress.getOrDefault(key, 0);
-
-            if (depth <= 1) {
-                state.inProgress.remove(key);
-            } else {
-                state.inProgress.put(key, depth - 1);
-            }
+            state.inProgress.decrement(request.key());
 
             ResolutionRequest finished = state.path.pop();
 
@@ -769,20 +1373,12 @@ public class InfuseInjector implements Injector {
             }
         }
 
-        private void record(Class<?> requestedType, @Nullable Object instance) {
+        private void record(BindingKey lookupKey, @Nullable Object instance) {
             if (instance == null) {
                 return;
             }
 
-            ResolutionScopeState state = currentState();
-            ResolutionScope scope = state.stack.peek();
-
-            if (scope == null) {
-                throw new IllegalStateException("No active scope while recording instance for " + requestedType.getName());
-            }
-
-            scope.store(requestedType, instance);
-            scope.store(instance.getClass(), instance);
+            currentState().resolved.push(AssignableKeys.of(instance.getClass(), lookupKey.getQualifier()), instance);
         }
 
         private ResolutionScopeState currentState() {
@@ -794,11 +1390,11 @@ public class InfuseInjector implements Injector {
             Collections.reverse(ordered);
             ordered.add(request);
 
-            ResolutionKey key = request.key();
+            BindingKey key = request.key();
             int startIndex = -1;
 
             for (int i = 0; i < ordered.size() - 1; i++) {
-                if (ordered.get(i).key().equals(key)) {
+                if (ordered.get(i).key() == key) {
                     startIndex = i;
                     break;
                 }
@@ -824,14 +1420,18 @@ public class InfuseInjector implements Injector {
             throw new IllegalStateException(builder.toString());
         }
 
-        boolean isResolving(Class<?> type, BindingQualifier qualifier) {
+        boolean isResolving(BindingKey lookupKey) {
+            if (!tracking) {
+                return false;
+            }
+
             ResolutionScopeState state = currentState();
-            return state.inProgress.containsKey(new ResolutionKey(type, qualifier));
+            return state.inProgress.get(lookupKey) > 0;
         }
 
-        void detectExistingCycle(Class<?> type, BindingQualifier qualifier, Context<?> context) {
+        void detectExistingCycle(BindingKey lookupKey, Context<?> context) {
             ResolutionScopeState state = currentState();
-            ResolutionRequest request = new ResolutionRequest(type, qualifier, context);
+            ResolutionRequest request = new ResolutionRequest(lookupKey, context);
             throwCycle(state, request);
         }
 
@@ -848,9 +1448,9 @@ public class InfuseInjector implements Injector {
                 return null;
             }
 
-            ResolutionRequest request = new ResolutionRequest(ownerType, qualifier, null);
+            ResolutionRequest request = new ResolutionRequest(BindingKey.lookup(ownerType, qualifier), null);
             state.path.push(request);
-            state.inProgress.merge(request.key(), 1, Integer::sum);
+            state.inProgress.increment(request.key());
             return request;
         }
 
@@ -859,14 +1459,7 @@ public class InfuseInjector implements Injector {
                 return;
             }
 
-            ResolutionKey key = request.key();
-            int depth = state.inProgress.getOrDefault(key, 0);
-
-            if (depth <= 1) {
-                state.inProgress.remove(key);
-            } else {
-                state.inProgress.put(key, depth - 1);
-            }
+            state.inProgress.decrement(request.key());
 
             ResolutionRequest finished = state.path.pop();
             if (finished != request) {
@@ -874,74 +1467,70 @@ public class InfuseInjector implements Injector {
             }
         }
 
+        /**
+         * Per-thread resolution state. Object scopes form a stack of pooled frames, and every instance resolved within
+         * them is indexed by lookup key id in {@link #resolved}, so finding an instance to reuse does not depend on
+         * how deep the object graph is.
+         */
         private static final class ResolutionScopeState {
-            private final Deque<ResolutionScope> stack;
-            private final Map<ResolutionKey, Integer> inProgress;
-            private final Deque<ResolutionRequest> path;
-
-            private ResolutionScopeState(Deque<ResolutionScope> stack,
-                                         Map<ResolutionKey, Integer> inProgress,
-                                         Deque<ResolutionRequest> path) {
-                this.stack = stack;
-                this.inProgress = inProgress;
-                this.path = path;
-            }
+            private final ResolvedInstances resolved = new ResolvedInstances();
+            private final ResolutionDepths inProgress = new ResolutionDepths();
+            private final Deque<ResolutionRequest> path = new ArrayDeque<>();
+            private ResolutionScope[] frames = new ResolutionScope[8];
+            private int top;
 
-            private static ResolutionScopeState create(InfuseInjector root) {
-                Deque<ResolutionScope> stack = new ArrayDeque<>();
-                ResolutionScope scope = ResolutionScope.root(root);
-                scope.store(root.getClass(), root);
-                scope.store(Injector.class, root);
-                stack.push(scope);
+            private static ResolutionScopeState create() {
+                ResolutionScopeState state = new ResolutionScopeState();
+                ResolutionScope scope = new ResolutionScope(state, true);
+                scope.open(null, 0);
+                state.frames[0] = scope;
 
-                return new ResolutionScopeState(stack, new HashMap<>(), new ArrayDeque<>());
+                return state;
             }
-        }
-
-        private static final class ResolutionKey {
-            private final Class<?> type;
-            private final BindingQualifier qualifier;
 
-            private ResolutionKey(Class<?> type, BindingQualifier qualifier) {
-                this.type = type;
-                this.qualifier = qualifier;
+            private ResolutionScope current() {
+                return frames[top];
             }
 
-            @Override
-            public boolean equals(Object o) {
-                if (this == o) {
-                    return true;
+            private ResolutionScope push(Object owner) {
+                if (++top == frames.length) {
+                    frames = Arrays.copyOf(frames, frames.length * 2);
                 }
 
-                if (!(o instanceof ResolutionKey)) {
-                    return false;
+                ResolutionScope scope = frames[top];
+
+                if (scope == null) {
+                    scope = new ResolutionScope(this, false);
+                    frames[top] = scope;
                 }
 
-                ResolutionKey that = (ResolutionKey) o;
-                return Objects.equals(type, that.type) && Objects.equals(qualifier, that.qualifier);
+                scope.open(owner, resolved.size());
+                return scope;
             }
 
-            @Override
-            public int hashCode() {
-                return Objects.hash(type, qualifier);
+            private void pop() {
+                ResolutionScope scope = frames[top--];
+                resolved.unwind(scope.mark);
+                scope.close();
             }
         }
 
         private static final class ResolutionRequest {
             private final Class<?> type;
             private final BindingQualifier qualifier;
-            private final ResolutionKey key;
+            // Held so that the key, and with it the id counted in ResolutionDepths, stays reserved while in progress.
+            private final BindingKey key;
             private final RequestOrigin origin;
             private @Nullable Binding<?> binding;
 
-            private ResolutionRequest(Class<?> type, BindingQualifier qualifier, @Nullable Context<?> context) {
-                this.type = type;
-                this.qualifier = qualifier;
-                this.key = new ResolutionKey(type, qualifier);
+            private ResolutionRequest(BindingKey lookupKey, @Nullable Context<?> context) {
+                this.type = lookupKey.getType();
+                this.qualifier = lookupKey.getQualifier();
+                this.key = lookupKey;
                 this.origin = context == null ? RequestOrigin.direct() : RequestOrigin.from(context);
             }
 
-            private ResolutionKey key() {
+            private BindingKey key() {
                 return key;
             }
 
@@ -1001,6 +1590,10 @@ public class InfuseInjector implements Injector {
                 return new RequestOrigin(ElementType.TYPE, null, null);
             }
 
+            private static RequestOrigin at(InjectionPoint point) {
+                return new RequestOrigin(point.element(), point.declaringType(), point.name());
+            }
+
             private String describe() {
                 String owner = ownerType != null ? ownerType.getName() : "direct injector request";
 
@@ -1022,229 +1615,1216 @@ public class InfuseInjector implements Injector {
         }
     }
 
-    private static final class ProvisionFrame {
-        private final ResolutionScopes.ResolutionRequest request;
+    /**
+     * Per-thread provisioning depth of each lookup key, keyed by {@link BindingKey#getId()}. Key ids are dense, so
+     * they are used directly as hash codes in a linear-probing table and no boxing happens on the provisioning path.
+     * Keys are never removed; a key that finished provisioning simply drops back to a depth of zero. A key is only
+     * counted while a request holds it, so its id cannot be handed to another key while its depth is above zero.
+     */
+    private static final class ResolutionDepths {
+        // Slots store id + 1 so that zero marks a free slot.
+        private int[] keys = new int[16];
+        private int[] depths = new int[16];
+        private int size;
+
+        private int get(BindingKey key) {
+            int index = slot(key.getId());
+            return keys[index] == 0 ? 0 : depths[index];
+        }
+
+        private void increment(BindingKey key) {
+            int id = key.getId();
+            int index = slot(id);
+
+            if (keys[index] == 0) {
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    index = slot(id);
+                }
 
-        private ProvisionFrame(ResolutionScopes.ResolutionRequest request) {
-            this.request = request;
+                keys[index] = id + 1;
+                size++;
+            }
+
+            depths[index]++;
         }
 
-        private void attachBinding(@Nullable Binding<?> binding) {
-            request.attachBinding(binding);
+        private void decrement(BindingKey key) {
+            int index = slot(key.getId());
+
+            if (keys[index] != 0 && depths[index] > 0) {
+                depths[index]--;
+            }
         }
 
-        private ResolutionScopes.ResolutionRequest request() {
-            return request;
+        private int slot(int id) {
+            int mask = keys.length - 1;
+            int index = id & mask;
+
+            while (keys[index] != 0 && keys[index] != id + 1) {
+                index = (index + 1) & mask;
+            }
+
+            return index;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldDepths = depths;
+            keys = new int[oldKeys.length * 2];
+            depths = new int[oldKeys.length * 2];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int index = slot(oldKeys[i] - 1);
+                    keys[index] = oldKeys[i];
+                    depths[index] = oldDepths[i];
+                }
+            }
         }
     }
 
-        private static final class ResolutionScopeHandle {
-            private final ResolutionScopes.ResolutionScopeState state;
-            private final ResolutionScope scope;
-            private final boolean newScope;
-            private final @Nullable ResolutionScopes.ResolutionRequest ownerRequest;
+    /**
+     * The just-in-time binding of one type in one injector, settled on first use: either created by the injector or
+     * inherited from an ancestor.
+     */
+    private static final class JustInTimeBinding {
+        private final List<Binding<?>> bindings;
+        private final boolean created;
 
-        private ResolutionScopeHandle(ResolutionScopes.ResolutionScopeState state,
-                                      ResolutionScope scope,
-                                      boolean newScope,
-                                      @Nullable ResolutionScopes.ResolutionRequest ownerRequest) {
-            this.state = state;
-            this.scope = scope;
-            this.newScope = newScope;
-            this.ownerRequest = ownerRequest;
+        private JustInTimeBinding(List<Binding<?>> bindings, boolean created) {
+            this.bindings = bindings;
+            this.created = created;
         }
     }
 
-    private static final class ResolutionScope {
-        private final Object owner;
-        private final boolean root;
-        private final Map<Class<?>, Object> instances = new LinkedHashMap<>();
-        private int depth;
+    /**
+     * The bindings of a child stamped from a {@link ChildTemplate}: one immutable instance binding per instance key of
+     * the template, followed by the child's own {@link Injector} binding, found by comparing interned keys.
+     */
+    private static final class InstanceSlots {
+        private static final BindingKey INJECTOR = BindingKey.lookup(Injector.class, BindingQualifier.none());
 
-        private ResolutionScope(Object owner, boolean root) {
-            this.owner = owner;
-            this.root = root;
-            this.depth = root ? Integer.MAX_VALUE : 1;
+        private final BindingKey[] keys;
+        private final Binding<?>[] bindings;
+        private final List<?>[] matches;
+
+        private InstanceSlots(BindingKey[] keys, Object[] instances) {
+            this.keys = keys;
+            this.bindings = new Binding<?>[keys.length + 1];
+            this.matches = new List<?>[keys.length + 1];
+
+            for (int i = 0; i < keys.length; i++) {
+                bind(i, keys[i], instances[i]);
+            }
         }
 
-        private static ResolutionScope root(Object owner) {
-            return new ResolutionScope(owner, true);
+        private void bindInjector(InfuseInjector injector) {
+            bind(keys.length, INJECTOR, injector);
         }
 
-        private static ResolutionScope object(Object owner) {
-            return new ResolutionScope(owner, false);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void bind(int slot, BindingKey key, Object instance) {
+            Binding<?> binding = new Binding(key.getType(), new ImmutableInstanceProvider<>(instance),
+                    key.getQualifier(), BindingScope.IMMUTABLE_INSTANCE, false);
+
+            bindings[slot] = binding;
+            matches[slot] = Collections.singletonList(binding);
         }
 
-        private boolean isRoot() {
-            return root;
+        @SuppressWarnings("unchecked")
+        private <T> @Nullable List<Binding<T>> find(BindingKey lookupKey) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == lookupKey) {
+                    return (List<Binding<T>>) matches[i];
+                }
+            }
+
+            return lookupKey == INJECTOR ? (List<Binding<T>>) matches[keys.length] : null;
         }
 
-        private boolean isOwner(Object candidate) {
-            return owner == candidate;
+        private List<Binding<?>> bindings() {
+            return Arrays.asList(bindings);
         }
+    }
 
-        private void retain() {
-            if (root) {
-                return;
+    /**
+     * Remembers how lookup keys resolved across the parent chain, including definitive misses, so repeated lookups
+     * cost a single probe regardless of how deeply the injector is nested. Only the keys this injector was asked for
+     * are held, in an open-addressing table hashed by {@link BindingKey#getId()}. Reads never lock; each slot holds an
+     * immutable entry, so publishing an entry publishes its key and bindings together. Entries hold their keys weakly,
+     * so remembering a lookup for a plugin's class, typically a miss, does not keep the class loaded; entries whose
+     * key was collected are dropped when the table grows.
+     */
+    private static final class ResolutionTable {
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private volatile AtomicReferenceArray<Resolution> slots = new AtomicReferenceArray<>(16);
+        // Guarded by writeLock.
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private <T> @Nullable List<Binding<T>> get(BindingKey key) {
+            AtomicReferenceArray<Resolution> current = slots;
+            int mask = current.length() - 1;
+            int index = key.getId() & mask;
+            Resolution resolution;
+
+            while ((resolution = current.get(index)) != null) {
+                if (resolution.get() == key) {
+                    return (List<Binding<T>>) (List<?>) resolution.bindings;
+                }
+
+                index = (index + 1) & mask;
             }
 
-            depth++;
+            return null;
         }
 
-        private boolean release() {
-            if (root) {
-                return false;
+        @SuppressWarnings("unchecked")
+        private <T> void put(BindingKey key, List<Binding<T>> resolved) {
+            writeLock.lock();
+
+            try {
+                if (get(key) != null) {
+                    return;
+                }
+
+                AtomicReferenceArray<Resolution> current = slots;
+
+                if ((size + 1) * 2 > current.length()) {
+                    current = rebuild(current);
+                    slots = current;
+                }
+
+                insert(current, new Resolution(key, (List<Binding<?>>) (List<?>) resolved));
+                size++;
+            } finally {
+                writeLock.unlock();
             }
+        }
 
-            depth--;
+        /**
+         * Copies the live entries into a new array, twice as large unless dropping collected keys freed enough room.
+         */
+        private AtomicReferenceArray<Resolution> rebuild(AtomicReferenceArray<Resolution> current) {
+            List<Resolution> live = new ArrayList<>(size);
 
-            if (depth < 0) {
-                throw new IllegalStateException("Scope depth became negative for " + owner.getClass().getName());
+            for (int i = 0; i < current.length(); i++) {
+                Resolution resolution = current.get(i);
+
+                if (resolution != null && resolution.get() != null) {
+                    live.add(resolution);
+                }
             }
 
-            return depth == 0;
-        }
+            int length = current.length();
 
-        private void store(Class<?> type, Object instance) {
-            instances.put(type, instance);
-        }
+            while ((live.size() + 1) * 2 > length) {
+                length *= 2;
+            }
 
-        private Object lookup(Class<?> type) {
-            Object direct = instances.get(type);
+            AtomicReferenceArray<Resolution> rebuilt = new AtomicReferenceArray<>(length);
 
-            if (direct != null && type.isInstance(direct)) {
-                return direct;
+            for (Resolution resolution : live) {
+                insert(rebuilt, resolution);
             }
 
-            for (Object candidate : instances.values()) {
-                if (candidate != null && type.isInstance(candidate)) {
-                    return candidate;
-                }
+            size = live.size();
+            return rebuilt;
+        }
+
+        private static void insert(AtomicReferenceArray<Resolution> slots, Resolution resolution) {
+            int mask = slots.length() - 1;
+            int index = resolution.id & mask;
+
+            while (slots.get(index) != null) {
+                index = (index + 1) & mask;
             }
 
-            return null;
+            slots.set(index, resolution);
         }
     }
 
-    private static final class EagerInstanceRecord {
-        private final Binding<?> binding;
-        private final Object instance;
-        private final InjectionPlan plan;
+    private static final class Resolution extends WeakReference<BindingKey> {
+        // The id of the key, kept to rehash the entry without the key.
+        private final int id;
+        private final List<Binding<?>> bindings;
 
-        private EagerInstanceRecord(Binding<?> binding, Object instance, InjectionPlan plan) {
-            this.binding = binding;
-            this.instance = instance;
-            this.plan = plan;
+        private Resolution(BindingKey key, List<Binding<?>> bindings) {
+            super(key);
+            this.id = key.getId();
+            this.bindings = bindings;
         }
+    }
 
-        private Binding<?> binding() {
-            return binding;
+    private static final class ProvisionFrame {
+        private final ResolutionScopes.ResolutionRequest request;
+
+        private ProvisionFrame(ResolutionScopes.ResolutionRequest request) {
+            this.request = request;
         }
 
-        private Object instance() {
-            return instance;
+        private void attachBinding(@Nullable Binding<?> binding) {
+            request.attachBinding(binding);
         }
 
-        private InjectionPlan plan() {
-            return plan;
+        private ResolutionScopes.ResolutionRequest request() {
+            return request;
         }
     }
 
-    private static final class PostInjectInvocation {
-        private final Object target;
-        private final Method method;
-        private final int priority;
+    /**
+     * A frame of the per-thread resolution stack, owned by the object whose dependencies are being resolved. Frames
+     * are pooled by their {@link ResolutionScopes.ResolutionScopeState} and reused once popped.
+     */
+    private static final class ResolutionScope {
+        private final ResolutionScopes.ResolutionScopeState state;
+        private final boolean root;
+        private @Nullable Object owner;
+        private @Nullable ResolutionScopes.ResolutionRequest ownerRequest;
+        private int mark;
+        private int depth;
 
-        private PostInjectInvocation(Object target, Method method, int priority) {
-            this.target = target;
-            this.method = method;
-            this.priority = priority;
+        private ResolutionScope(ResolutionScopes.ResolutionScopeState state, boolean root) {
+            this.state = state;
+            this.root = root;
         }
 
-        private Object target() {
-            return target;
+        private void open(@Nullable Object owner, int mark) {
+            this.owner = owner;
+            this.mark = mark;
+            // The root frame is never popped; its depth counts the calls currently resolving on behalf of the injector.
+            this.depth = root ? 0 : 1;
         }
 
-        private Method method() {
-            return method;
+        private void close() {
+            owner = null;
+            ownerRequest = null;
         }
 
-        private int priority() {
-            return priority;
+        private boolean isRoot() {
+            return root;
         }
-    }
-
-    private static final class ConstructorArgumentPlan {
-        private final ConstructorParameter[] parameters;
-        private final ConcurrentMap<ConstructorArgumentsKey, int[]> assignmentCache;
-        private final int[] defaultMapping;
 
-        private ConstructorArgumentPlan(ConstructorParameter[] parameters) {
-            this.parameters = parameters;
-            this.assignmentCache = new ConcurrentHashMap<>();
-            this.defaultMapping = initialiseDefaultMapping(parameters.length);
+        private boolean isOwner(Object candidate) {
+            return owner == candidate;
         }
 
-        private static ConstructorArgumentPlan create(InfuseInjector injector, Constructor<?> constructor) {
-            Parameter[] reflectionParameters = constructor.getParameters();
-            ConstructorParameter[] parameters = new ConstructorParameter[reflectionParameters.length];
+        private void retain() {
+            depth++;
+        }
 
-            for (int i = 0; i < reflectionParameters.length; i++) {
-                Parameter parameter = reflectionParameters[i];
-                Annotation[] annotations = parameter.getAnnotations();
-                boolean optional = InjectionUtils.isOptional(annotations);
-                Context<?> context = new Context<>(constructor.getDeclaringClass(), injector, injector,
-                        ElementType.CONSTRUCTOR, parameter.getName(), annotations);
+        private boolean release() {
+            depth--;
 
-                parameters[i] = new ConstructorParameter(parameter.getType(), parameter.getName(), optional, context);
+            if (depth < 0) {
+                throw new IllegalStateException("Scope depth became negative for "
+                        + (root ? "the injector" : owner.getClass().getName()));
             }
 
-            return new ConstructorArgumentPlan(parameters);
+            return depth == 0;
         }
 
-        private Object[] resolve(InfuseInjector injector, Object[] provided) {
-            if (parameters.length == 0) {
-                return new Object[0];
-            }
+    }
 
-            Object[] resolved = new Object[parameters.length];
+    /**
+     * Instances resolved on the current thread's resolution stack, indexed by lookup key id. Each push adds an entry
+     * that shadows the previous instance for the same id; popping a frame unwinds its entries and restores what they
+     * shadowed, so the instance found for an id is always the one recorded by the innermost frame. Entries hold their
+     * keys, so an id with an entry always belongs to the same key.
+     */
+    private static final class ResolvedInstances {
+        // Slots store id + 1 so that zero marks a free slot; heads store entry index + 1 so that zero marks no entry.
+        private int[] keys = new int[32];
+        private int[] heads = new int[32];
+        private int used;
 
-            int[] mapping;
-            if (provided.length == 0) {
-                mapping = defaultMapping;
-            } else {
-                ConstructorArgumentsKey key = new ConstructorArgumentsKey(provided);
-                mapping = assignmentCache.computeIfAbsent(key, unused -> computeMapping(provided));
-            }
+        private BindingKey[] entryKeys = new BindingKey[32];
+        private int[] entryPrevious = new int[32];
+        private Object[] entryInstances = new Object[32];
+        private int size;
 
-            for (int i = 0; i < parameters.length; i++) {
-                int providedIndex = mapping.length > i ? mapping[i] : -1;
+        private @Nullable Object get(BindingKey key) {
+            int head = heads[slot(key.getId())];
+            return head == 0 ? null : entryInstances[head - 1];
+        }
 
-                if (providedIndex >= 0 && providedIndex < provided.length) {
-                    Object candidate = provided[providedIndex];
+        private void push(BindingKey[] keys, Object instance) {
+            for (BindingKey key : keys) {
+                push(key, instance);
+            }
+        }
 
-                    if (parameters[i].supports(candidate)) {
-                        resolved[i] = candidate;
-                        continue;
-                    }
+        private void push(BindingKey key, Object instance) {
+            int id = key.getId();
+            int index = slot(id);
+
+            if (keys[index] == 0) {
+                if ((used + 1) * 2 > keys.length) {
+                    grow();
+                    index = slot(id);
                 }
 
-                resolved[i] = parameters[i].resolve(injector);
+                keys[index] = id + 1;
+                used++;
+            }
+
+            if (size == entryKeys.length) {
+                entryKeys = Arrays.copyOf(entryKeys, size * 2);
+                entryPrevious = Arrays.copyOf(entryPrevious, size * 2);
+                entryInstances = Arrays.copyOf(entryInstances, size * 2);
+            }
+
+            entryKeys[size] = key;
+            entryPrevious[size] = heads[index];
+            entryInstances[size] = instance;
+            heads[index] = ++size;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void unwind(int mark) {
+            while (size > mark) {
+                int entry = --size;
+                heads[slot(entryKeys[entry].getId())] = entryPrevious[entry];
+                entryKeys[entry] = null;
+                entryInstances[entry] = null;
+            }
+        }
+
+        private int slot(int id) {
+            int mask = keys.length - 1;
+            int index = id & mask;
+
+            while (keys[index] != 0 && keys[index] != id + 1) {
+                index = (index + 1) & mask;
+            }
+
+            return index;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldHeads = heads;
+            keys = new int[oldKeys.length * 2];
+            heads = new int[oldKeys.length * 2];
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int index = slot(oldKeys[i] - 1);
+                    keys[index] = oldKeys[i];
+                    heads[index] = oldHeads[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * The lookup keys a resolved instance can be reused for: one for each class and interface its class is assignable
+     * to, under the qualifier it was resolved with. Only the unqualified keys are cached with the class; a qualifier
+     * may come from a class loader the class must not keep alive.
+     */
+    private static final class AssignableKeys {
+        private static final ClassValue<AssignableKeys> CACHE = new ClassValue<AssignableKeys>() {
+            @Override
+            protected AssignableKeys computeValue(Class<?> type) {
+                return new AssignableKeys(type);
+            }
+        };
+
+        private final Class<?>[] supertypes;
+        private final BindingKey[] unqualified;
+
+        private AssignableKeys(Class<?> type) {
+            Set<Class<?>> collected = new LinkedHashSet<>();
+            collectSupertypes(type, collected);
+
+            this.supertypes = collected.toArray(new Class<?>[0]);
+            this.unqualified = keys(BindingQualifier.none());
+        }
+
+        private static BindingKey[] of(Class<?> type, BindingQualifier qualifier) {
+            AssignableKeys keys = CACHE.get(type);
+            return qualifier.isDefault() ? keys.unqualified : keys.keys(qualifier);
+        }
+
+        private BindingKey[] keys(BindingQualifier qualifier) {
+            BindingKey[] keys = new BindingKey[supertypes.length];
+
+            for (int i = 0; i < supertypes.length; i++) {
+                keys[i] = BindingKey.lookup(supertypes[i], qualifier);
+            }
+
+            return keys;
+        }
+
+        private static void collectSupertypes(@Nullable Class<?> type, Set<Class<?>> collected) {
+            if (type == null || !collected.add(type)) {
+                return;
+            }
+
+            collectSupertypes(type.getSuperclass(), collected);
+
+            for (Class<?> implemented : type.getInterfaces()) {
+                collectSupertypes(implemented, collected);
+            }
+        }
+    }
+
+    /**
+     * Validates the binding graph of a {@link InjectorOptions.Stage#PRODUCTION} injector when it is created, so that
+     * provisions can skip cycle tracking afterwards. Every binding is walked once; unresolvable and ambiguous
+     * dependencies, cycles and scoped bindings that depend on shorter-lived scopes are all collected and reported in
+     * a single {@link ConfigurationException}.
+     * <p>
+     * Bindings to custom providers are opaque: their own dependencies are only resolved when they run. Instance
+     * bindings already exist, so depending on one never forms a cycle.
+     */
+    private static final class GraphValidator {
+        private static final int UNVISITED = 0;
+        private static final int VISITING = 1;
+        private static final int VISITED = 2;
+
+        private final InfuseInjector injector;
+        private final Map<Object, Node> nodes = new IdentityHashMap<>();
+        private final Deque<Step> path = new ArrayDeque<>();
+        private final Set<String> problems = new LinkedHashSet<>();
+
+        private GraphValidator(InfuseInjector injector) {
+            this.injector = injector;
+        }
+
+        private void validate() {
+            for (Binding<?> binding : injector.getOwnBindings()) {
+                Node node = node(binding);
+
+                if (node.state == UNVISITED) {
+                    visit(node, null);
+                }
+            }
+
+            report("Injector validation");
+        }
+
+        /**
+         * Validates a construction of {@code type} that was not reached from any binding, through the given injection
+         * points: those of its constructor that no argument was given for, and those of its members.
+         */
+        private void validate(Class<?> type, List<InjectionPoint> dependencies) {
+            visit(Node.root(type), null, dependencies);
+            report("Validation of " + type.getName());
+        }
+
+        private void report(String subject) {
+            if (problems.isEmpty()) {
+                return;
+            }
+
+            String lineSeparator = System.lineSeparator();
+            StringBuilder builder = new StringBuilder(subject)
+                    .append(" found ")
+                    .append(problems.size())
+                    .append(problems.size() == 1 ? " problem:" : " problems:");
+            int index = 1;
+
+            for (String problem : problems) {
+                builder.append(lineSeparator).append(index++).append(") ").append(problem);
+            }
+
+            throw new ConfigurationException(builder.toString());
+        }
+
+        private void visit(Node node, @Nullable InjectionPoint via) {
+            visit(node, via, dependencies(node));
+        }
+
+        private void visit(Node node, @Nullable InjectionPoint via, List<InjectionPoint> dependencies) {
+            node.state = VISITING;
+            path.push(new Step(node, via));
+
+            for (InjectionPoint point : dependencies) {
+                Node target = resolve(point);
+
+                if (target == null || target.instance) {
+                    continue;
+                }
+
+                if (target.state == VISITING) {
+                    reportCycle(target, point);
+                    continue;
+                }
+
+                if (target.state == UNVISITED) {
+                    visit(target, point);
+                }
+
+                Node narrowest = target.lifetime > 0 ? target : target.narrowest;
+
+                if (narrowest == null) {
+                    continue;
+                }
+
+                if (node.lifetime == 0) {
+                    if (node.narrowest == null || narrowest.lifetime < node.narrowest.lifetime) {
+                        node.narrowest = narrowest;
+                    }
+                } else if (node.lifetime > 0 && narrowest.lifetime < node.lifetime) {
+                    problems.add(node.describe() + " depends on " + narrowest.describe() + " through "
+                            + ResolutionScopes.RequestOrigin.at(point).describe()
+                            + ", which does not live as long");
+                }
+            }
+
+            path.pop();
+            node.state = VISITED;
+        }
+
+        private List<InjectionPoint> dependencies(Node node) {
+            List<InjectionPoint> dependencies = new ArrayList<>();
+            Class<?> type = node.type;
+
+            if (type == null) {
+                return dependencies;
+            }
+
+            if (node.constructed) {
+                if (!isConstructable(type)) {
+                    problems.add(type.getName() + " cannot be constructed because it is "
+                            + (type.isInterface() ? "an interface" : "abstract"));
+                    return dependencies;
+                }
+
+                try {
+                    Constructor<?> constructor = injector.resolveConstructor(type);
+                    ConstructorArgumentPlan plan = injector.getConstructorArgumentPlan(constructor);
+
+                    for (ConstructorParameter parameter : plan.parameters) {
+                        dependencies.add(parameter.point);
+                    }
+                } catch (RuntimeException e) {
+                    problems.add(type.getName() + " cannot be constructed: " + e.getMessage());
+                }
+            }
+
+            injector.getInjectionPlan(type).addDependencies(dependencies);
+
+            return dependencies;
+        }
+
+        private @Nullable Node resolve(InjectionPoint point) {
+            String origin = ResolutionScopes.RequestOrigin.at(point).describe();
+            BindingKey lookupKey;
+
+            try {
+                lookupKey = point.lookupKey();
+            } catch (RuntimeException e) {
+                problems.add("Invalid qualifier on " + origin + ": " + e.getMessage());
+                return null;
+            }
+
+            BindingQualifier qualifier = lookupKey.getQualifier();
+
+            // Resolved from the graph before any binding is consulted: the injector itself, and the objects whose
+            // members are being injected.
+            if (qualifier.isDefault()
+                    && (point.type().isAssignableFrom(injector.getClass()) || isOwnerReused(point))) {
+                return null;
+            }
+
+            List<Binding<Object>> matches = injector.resolveBindings(lookupKey);
+            String required = point.type().getName() + (qualifier.isDefault() ? "" : " qualified by " + qualifier);
+
+            if (matches.size() > 1) {
+                problems.add("Multiple bindings found for " + required + ", required by " + origin);
+                return null;
+            }
+
+            if (!matches.isEmpty()) {
+                return node(matches.get(0));
+            }
+
+            if (point.isOptional()) {
+                return null;
+            }
+
+            if (!isConstructable(point.type())) {
+                problems.add("No binding found for " + required + ", required by " + origin);
+                return null;
+            }
+
+            return nodes.computeIfAbsent(point.type(), unused -> Node.implicit(point.type()));
+        }
+
+        /**
+         * An object is reused by the graph beneath it for every type it is assignable to but its own, which is a cycle,
+         * once it exists: from its members on, and so not for the dependencies of its constructor.
+         */
+        private boolean isOwnerReused(InjectionPoint point) {
+            InjectionPoint via = point;
+
+            for (Step step : path) {
+                Class<?> type = step.node.type;
+
+                if (via.element() != ElementType.CONSTRUCTOR
+                        && step.node.constructed
+                        && type != null
+                        && type != point.type()
+                        && point.type().isAssignableFrom(type)) {
+                    return true;
+                }
+
+                if (step.via == null) {
+                    break;
+                }
+
+                via = step.via;
+            }
+
+            return false;
+        }
+
+        private void reportCycle(Node target, InjectionPoint closing) {
+            List<Step> steps = new ArrayList<>(path);
+            Collections.reverse(steps);
+
+            int start = 0;
+
+            while (steps.get(start).node != target) {
+                start++;
+            }
+
+            String lineSeparator = System.lineSeparator();
+            StringBuilder builder = new StringBuilder("Dependency cycle detected while resolving ")
+                    .append(target.describe())
+                    .append(lineSeparator)
+                    .append("Cycle path:");
+
+            for (int i = start; i < steps.size(); i++) {
+                Step step = steps.get(i);
+                builder.append(lineSeparator).append(" - ").append(step.node.describe());
+
+                if (step.via != null && i > start) {
+                    builder.append(" requested at ").append(ResolutionScopes.RequestOrigin.at(step.via).describe());
+                }
+            }
+
+            builder.append(lineSeparator)
+                    .append(" - ")
+                    .append(target.describe())
+                    .append(" requested at ")
+                    .append(ResolutionScopes.RequestOrigin.at(closing).describe());
+
+            problems.add(builder.toString());
+        }
+
+        private Node node(Binding<?> binding) {
+            return nodes.computeIfAbsent(binding, unused -> Node.bound(binding));
+        }
+
+        private static boolean isConstructable(Class<?> type) {
+            return !type.isPrimitive()
+                    && !type.isArray()
+                    && !type.isInterface()
+                    && !Modifier.isAbstract(type.getModifiers());
+        }
+
+        private static final class Step {
+            private final Node node;
+            private final @Nullable InjectionPoint via;
+
+            private Step(Node node, @Nullable InjectionPoint via) {
+                this.node = node;
+                this.via = via;
+            }
+        }
+
+        private static final class Node {
+            private final String description;
+            // The class whose injection points are the node's dependencies, or null if they are unknown.
+            private final @Nullable Class<?> type;
+            private final boolean constructed;
+            private final boolean instance;
+            // How long instances live: 0 for unscoped, -1 for scopes of unknown lifetime, otherwise higher is longer.
+            private final int lifetime;
+            // For unscoped nodes, the shortest-lived scoped node reachable through unscoped nodes only.
+            private @Nullable Node narrowest;
+            private int state = UNVISITED;
+
+            private Node(String description, @Nullable Class<?> type, boolean constructed, boolean instance,
+                         int lifetime) {
+                this.description = description;
+                this.type = type;
+                this.constructed = constructed;
+                this.instance = instance;
+                this.lifetime = lifetime;
+            }
+
+            private static Node implicit(Class<?> type) {
+                return new Node(type.getName() + " [implicit construction]", type, true, false, 0);
+            }
+
+            /**
+             * @return the node of a construction started at runtime, whose dependencies are given to the validator
+             */
+            private static Node root(Class<?> type) {
+                return new Node(type.getName() + " [constructed]", type, true, false, 0);
+            }
+
+            private static Node bound(Binding<?> binding) {
+                BindingScope scope = binding.getScope();
+                String description = binding.getType().getName()
+                        + (binding.getQualifier().isDefault() ? "" : " " + binding.getQualifier())
+                        + " [scope=" + scope + "]";
+                Provider<?> provider = binding.getProvider();
+
+                while (provider instanceof DelegatingProvider) {
+                    provider = ((DelegatingProvider<?>) provider).getDelegate();
+                }
+
+                int lifetime = lifetime(scope);
+
+                if (provider instanceof SingletonProvider) {
+                    return new Node(description, ((SingletonProvider<?>) provider).getType(), true, false, lifetime);
+                }
+
+                if (provider instanceof ConstructingProvider) {
+                    return new Node(description, ((ConstructingProvider<?>) provider).getImplementation(), true,
+                            false, lifetime);
+                }
+
+                if (provider instanceof InstanceProvider) {
+                    Object instance = ((InstanceProvider<?>) provider).getInstance();
+                    return new Node(description, instance == null ? null : instance.getClass(), false, true,
+                            lifetime);
+                }
+
+                if (provider instanceof ImmutableInstanceProvider) {
+                    return new Node(description, null, false, true, lifetime);
+                }
+
+                return new Node(description, null, false, false, lifetime);
+            }
+
+            private static int lifetime(BindingScope scope) {
+                if (scope.equals(BindingScope.UNSCOPED)) {
+                    return 0;
+                }
+
+                if (scope.equals(BindingScope.REQUEST)) {
+                    return 1;
+                }
+
+                if (scope.equals(BindingScope.SESSION)) {
+                    return 2;
+                }
+
+                if (scope.equals(BindingScope.SINGLETON)
+                        || scope.equals(BindingScope.EAGER_SINGLETON)
+                        || scope.equals(BindingScope.INSTANCE)
+                        || scope.equals(BindingScope.IMMUTABLE_INSTANCE)) {
+                    return 3;
+                }
+
+                return -1;
+            }
+
+            private String describe() {
+                return description;
+            }
+        }
+    }
+
+    /**
+     * A single object being constructed by {@link #construct(ConstructionTask)}: its constructor arguments are
+     * resolved, then it is instantiated, its fields are injected and its injection methods and lifecycle callbacks
+     * run. Whenever a dependency is pushed as a new task, this task pauses and resumes with the dependency's instance.
+     * Failures unwind through {@link #fail(InfuseInjector, Throwable)} with the same messages and cleanup as the
+     * nested calls this replaces.
+     */
+    private static final class ConstructionTask {
+        private static final int ARGUMENTS = 0;
+        private static final int FIELDS = 1;
+        private static final int CALLBACKS = 2;
+        private static final int DONE = 3;
+
+        private final Constructor<?> constructor;
+        private final Object[] provided;
+        private final boolean explicitConstructor;
+        // The resolution that asked for this object, finished once it is constructed.
+        private @Nullable PendingResolution resolution;
+        private int phase = ARGUMENTS;
+        private int index;
+        private @Nullable ConstructorArgumentPlan plan;
+        private int[] mapping;
+        private Object[] arguments;
+        private Object instance;
+        private InjectionPlan injection;
+        private FieldInjectionPoint[] fields;
+        // Values for the fields a hidden class injector assigns once all of them are resolved, if the plan has one.
+        private @Nullable Object[] generated;
+        private @Nullable ResolutionScope scope;
+
+        private ConstructionTask(Constructor<?> constructor,
+                                 Object[] provided,
+                                 boolean explicitConstructor,
+                                 @Nullable PendingResolution resolution) {
+            this.constructor = constructor;
+            this.provided = provided;
+            this.explicitConstructor = explicitConstructor;
+            this.resolution = resolution;
+        }
+
+        /**
+         * Continues construction until it either finishes or pushes a dependency onto the stack.
+         *
+         * @return whether construction finished
+         */
+        private boolean advance(InfuseInjector injector, List<ConstructionTask> stack) throws Exception {
+            if (phase == ARGUMENTS) {
+                if (plan == null) {
+                    plan = injector.getConstructorArgumentPlan(constructor);
+                    mapping = plan.mapping(provided);
+                    arguments = plan.parameters.length == 0 ? NO_ARGUMENTS : new Object[plan.parameters.length];
+                }
+
+                while (index < arguments.length) {
+                    ConstructorParameter parameter = plan.parameters[index];
+                    int providedIndex = mapping.length > index ? mapping[index] : -1;
+
+                    if (providedIndex >= 0 && providedIndex < provided.length
+                            && parameter.supports(provided[providedIndex])) {
+                        arguments[index++] = provided[providedIndex];
+                        continue;
+                    }
+
+                    Object argument = parameter.resolve(injector, stack);
+
+                    if (argument == PENDING) {
+                        return false;
+                    }
+
+                    arguments[index++] = argument;
+                }
+
+                instance = plan.newInstance(arguments);
+                scope = injector.resolutionScopes.enter(instance);
+                injection = injector.getInjectionPlan(instance.getClass());
+                fields = injection.getFields();
+                generated = injection.newGeneratedValues();
+                index = 0;
+                phase = FIELDS;
+            }
+
+            if (phase == FIELDS) {
+                while (index < fields.length) {
+                    Object value = injector.provide(fields[index].dependency(), instance, stack);
+
+                    if (value == PENDING) {
+                        return false;
+                    }
+
+                    accept(value);
+                }
+
+                phase = CALLBACKS;
+
+                if (generated != null) {
+                    assignGenerated(instance, injection, generated);
+                }
+
+                injector.injectMethods(instance);
+                injector.postConstruct(instance);
+                injector.postInject(instance);
+
+                ResolutionScope finished = scope;
+                scope = null;
+                injector.resolutionScopes.exit(finished);
+                phase = DONE;
+            }
+
+            return true;
+        }
+
+        /**
+         * Resumes with the instance of the dependency this task was waiting for.
+         */
+        private void accept(Object value) throws IllegalAccessException {
+            if (phase == ARGUMENTS) {
+                arguments[index++] = value;
+                return;
+            }
+
+            FieldInjectionPoint point = fields[index];
+
+            if (generated != null && point.isGenerated()) {
+                generated[index] = value;
+            } else {
+                point.assign(instance, value);
+            }
+
+            index++;
+        }
+
+        private Object complete(InfuseInjector injector) {
+            if (resolution == null) {
+                return instance;
+            }
+
+            resolution.complete(injector, instance);
+            resolution = null;
+
+            return instance;
+        }
+
+        private Throwable fail(InfuseInjector injector, Throwable failure) {
+            if (phase == FIELDS && failure instanceof Exception) {
+                failure = injectionFailure(failure, fields[index].dependency(), "Failed to inject field "
+                        + fields[index].field().getName() + " in " + instance.getClass().getName());
+            }
+
+            if (scope != null) {
+                ResolutionScope abandoned = scope;
+                scope = null;
+                injector.resolutionScopes.exit(abandoned);
+            }
+
+            if (phase != DONE && failure instanceof Exception) {
+                String message = explicitConstructor
+                        ? "Failed to construct via constructor " + constructor.toGenericString()
+                        : "Failed to construct " + constructor.getDeclaringClass().getName();
+
+                failure = phase == ARGUMENTS && arguments != null && index < arguments.length
+                        ? injectionFailure(failure, plan.parameters[index].point, message)
+                        : provisionFailure(failure, message);
+            }
+
+            if (resolution != null) {
+                resolution.close(injector);
+                resolution = null;
+            }
+
+            return failure;
+        }
+
+        private static RuntimeException rethrow(Throwable failure) {
+            if (failure instanceof RuntimeException) {
+                return (RuntimeException) failure;
+            }
+
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+
+            return new ProvisionException(failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * The remainder of a resolution whose instance is being constructed by a {@link ConstructionTask}: recording the
+     * instance and leaving the resolution and owner scopes once it exists.
+     */
+    private static final class PendingResolution {
+        private final BindingKey lookupKey;
+        private final @Nullable Binding<?> binding;
+        private final ResolutionScope ownerScope;
+        private final @Nullable ProvisionFrame frame;
+
+        private PendingResolution(BindingKey lookupKey,
+                                  @Nullable Binding<?> binding,
+                                  ResolutionScope ownerScope,
+                                  @Nullable ProvisionFrame frame) {
+            this.lookupKey = lookupKey;
+            this.binding = binding;
+            this.ownerScope = ownerScope;
+            this.frame = frame;
+        }
+
+        private void complete(InfuseInjector injector, Object instance) {
+            if (binding != null) {
+                injector.recordScopedInstance(binding, instance);
+            }
+
+            injector.resolutionScopes.record(lookupKey, instance);
+            close(injector);
+        }
+
+        private void close(InfuseInjector injector) {
+            if (frame != null) {
+                injector.resolutionScopes.end(frame);
+            }
+
+            injector.resolutionScopes.exit(ownerScope);
+        }
+    }
+
+    private static final class EagerInstanceRecord {
+        private final Binding<?> binding;
+        private final Object instance;
+        private final InjectionPlan plan;
+
+        private EagerInstanceRecord(Binding<?> binding, Object instance, InjectionPlan plan) {
+            this.binding = binding;
+            this.instance = instance;
+            this.plan = plan;
+        }
+
+        private Binding<?> binding() {
+            return binding;
+        }
+
+        private Object instance() {
+            return instance;
+        }
+
+        private InjectionPlan plan() {
+            return plan;
+        }
+    }
+
+    private static final class PostInjectInvocation {
+        private final Object target;
+        private final MethodInjectionPoint method;
+
+        private PostInjectInvocation(Object target, MethodInjectionPoint method) {
+            this.target = target;
+            this.method = method;
+        }
+
+        private Object target() {
+            return target;
+        }
+
+        private MethodInjectionPoint method() {
+            return method;
+        }
+
+        private int priority() {
+            return method.priority();
+        }
+    }
+
+    private static final class ConstructorArgumentPlan {
+        private final ConstructorMetadata metadata;
+        private final ConstructorParameter[] parameters;
+
+        private ConstructorArgumentPlan(ConstructorMetadata metadata, ConstructorParameter[] parameters) {
+            this.metadata = metadata;
+            this.parameters = parameters;
+        }
+
+        private static ConstructorArgumentPlan create(InfuseInjector injector, ConstructorMetadata metadata) {
+            ConstructorParameter[] parameters = new ConstructorParameter[metadata.parameters.length];
+
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = new ConstructorParameter(new InjectionPoint(injector, metadata.parameters[i]));
+            }
+
+            return new ConstructorArgumentPlan(metadata, parameters);
+        }
+
+        private Object[] resolve(InfuseInjector injector, Object[] provided) {
+            if (parameters.length == 0) {
+                return NO_ARGUMENTS;
+            }
+
+            Object[] resolved = new Object[parameters.length];
+            int[] mapping = mapping(provided);
+
+            for (int i = 0; i < parameters.length; i++) {
+                int providedIndex = mapping.length > i ? mapping[i] : -1;
+
+                if (providedIndex >= 0 && providedIndex < provided.length) {
+                    Object candidate = provided[providedIndex];
+
+                    if (parameters[i].supports(candidate)) {
+                        resolved[i] = candidate;
+                        continue;
+                    }
+                }
+
+                try {
+                    resolved[i] = parameters[i].resolve(injector);
+                } catch (RuntimeException e) {
+                    throw injectionFailure(e, parameters[i].point, "Failed to construct "
+                            + parameters[i].point.declaringType().getName());
+                }
             }
 
             return resolved;
         }
 
+        private int[] mapping(Object[] provided) {
+            return metadata.mapping(provided);
+        }
+
+        private Object newInstance(Object[] arguments) throws ReflectiveOperationException {
+            return metadata.instantiator().newInstance(arguments);
+        }
+    }
+
+    /**
+     * The parameters of a constructor and how explicitly provided arguments map onto them, shared by every injector.
+     */
+    private static final class ConstructorMetadata {
+        private final Constructor<?> constructor;
+        private final InjectionSite[] parameters;
+        private final SignatureCache<int[]> assignmentCache;
+        private final int[] defaultMapping;
+        // Built on first instantiation, as validation reads the metadata of constructors that may never be called.
+        private volatile @Nullable Instantiator instantiator;
+
+        private ConstructorMetadata(Constructor<?> constructor) {
+            Parameter[] reflectionParameters = constructor.getParameters();
+
+            this.constructor = constructor;
+            this.parameters = new InjectionSite[reflectionParameters.length];
+            this.assignmentCache = new SignatureCache<>();
+            this.defaultMapping = initialiseDefaultMapping(parameters.length);
+
+            for (int i = 0; i < reflectionParameters.length; i++) {
+                parameters[i] = InjectionSite.parameter(constructor, reflectionParameters[i], ElementType.CONSTRUCTOR);
+            }
+        }
+
+        private Instantiator instantiator() {
+            Instantiator instantiator = this.instantiator;
+
+            if (instantiator == null) {
+                // Racing threads build equivalent instantiators; any of them may be kept.
+                instantiator = Instantiator.of(constructor);
+                this.instantiator = instantiator;
+            }
+
+            return instantiator;
+        }
+
+        private int[] mapping(Object[] provided) {
+            if (provided.length == 0) {
+                return defaultMapping;
+            }
+
+            int[] mapping = assignmentCache.get(provided);
+
+            if (mapping == null) {
+                mapping = computeMapping(provided);
+                assignmentCache.put(provided, mapping);
+            }
+
+            return mapping;
+        }
+
         private int[] computeMapping(Object[] provided) {
             int[] mapping = Arrays.copyOf(defaultMapping, defaultMapping.length);
 
             for (int parameterIndex = 0; parameterIndex < parameters.length; parameterIndex++) {
-                ConstructorParameter parameter = parameters[parameterIndex];
+                InjectionSite parameter = parameters[parameterIndex];
 
                 for (int providedIndex = 0; providedIndex < provided.length; providedIndex++) {
                     Object candidate = provided[providedIndex];
 
-                    if (parameter.supports(candidate)) {
+                    if (parameter.accepts(candidate)) {
                         mapping[parameterIndex] = providedIndex;
                         break;
                     }
@@ -1261,80 +2841,190 @@ public class InfuseInjector implements Injector {
         }
     }
 
+    /**
+     * Creates instances through one constructor. The constructor is made accessible once, when the instantiator is
+     * built, and called through a {@link MethodHandle} that takes its arguments as an array, so instantiating skips
+     * the access and argument checks {@link Constructor#newInstance(Object...)} repeats on every call. Constructors
+     * that cannot be unreflected fall back to reflection. Either way, the instantiator fails like
+     * {@link Constructor#newInstance(Object...)}: anything the constructor throws is wrapped in an
+     * {@link InvocationTargetException}, and arguments that do not fit its parameters raise an
+     * {@link IllegalArgumentException}.
+     */
+    private abstract static class Instantiator {
+
+        abstract Object newInstance(Object[] arguments) throws ReflectiveOperationException;
+
+        private static Instantiator of(Constructor<?> constructor) {
+            ClassMetadata.ensureAccessible(constructor);
+
+            try {
+                int arity = constructor.getParameterCount();
+                MethodHandle constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor);
+                MethodHandle handle = HandleInstantiator.wrapThrown(constructorHandle)
+                        .asType(MethodType.genericMethodType(arity))
+                        .asSpreader(Object[].class, arity);
+
+                return new HandleInstantiator(handle);
+            } catch (IllegalAccessException | RuntimeException e) {
+                return new ReflectiveInstantiator(constructor);
+            }
+        }
+    }
+
+    private static final class HandleInstantiator extends Instantiator {
+        private static final MethodHandle WRAP;
+
+        static {
+            try {
+                WRAP = MethodHandles.lookup().findConstructor(InvocationTargetException.class,
+                        MethodType.methodType(void.class, Throwable.class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // Adapted to (Object[]) -> Object.
+        private final MethodHandle handle;
+
+        private HandleInstantiator(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        Object newInstance(Object[] arguments) throws InvocationTargetException {
+            try {
+                return (Object) handle.invokeExact(arguments);
+            } catch (InvocationTargetException | Error e) {
+                throw e;
+            } catch (Throwable throwable) {
+                // Only the adaptation around the constructor can get here: a wrong argument count, an argument of the
+                // wrong type or a null for a primitive parameter.
+                throw new IllegalArgumentException("argument type mismatch", throwable);
+            }
+        }
+
+        /**
+         * Wraps anything {@code target} throws in an {@link InvocationTargetException}, so that the target's own
+         * failures can be told apart from those of the adaptations applied around it afterwards.
+         */
+        private static MethodHandle wrapThrown(MethodHandle target) {
+            MethodType type = target.type();
+            // Built from fresh handles rather than by adapting a shared one, which would cache the target's types and
+            // keep the class loader that defined them reachable.
+            MethodHandle rethrow = MethodHandles.throwException(type.returnType(), InvocationTargetException.class);
+            MethodHandle handler = MethodHandles.dropArguments(
+                    MethodHandles.filterArguments(rethrow, 0, WRAP),
+                    1,
+                    type.parameterList());
+
+            return MethodHandles.catchException(target, Throwable.class, handler);
+        }
+    }
+
+    private static final class ReflectiveInstantiator extends Instantiator {
+        private final Constructor<?> constructor;
+
+        private ReflectiveInstantiator(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        Object newInstance(Object[] arguments) throws ReflectiveOperationException {
+            return constructor.newInstance(arguments);
+        }
+    }
+
     private static final class ConstructorParameter {
-        private final Class<?> type;
-        private final boolean optional;
-        private final boolean primitive;
-        private final String name;
-        private final Context<?> context;
-        private final Class<?> declaringType;
+        private final InjectionPoint point;
+        // Whether the graph reached through this parameter was validated, in the production stage.
+        private volatile boolean validated;
 
-        private ConstructorParameter(Class<?> type, String name, boolean optional, Context<?> context) {
-            this.type = type;
-            this.optional = optional;
-            this.primitive = type.isPrimitive();
-            this.name = name;
-            this.context = context;
-            this.declaringType = context.getType();
+        private ConstructorParameter(InjectionPoint point) {
+            this.point = point;
+        }
+
+        private boolean supports(Object candidate) {
+            return point.site.accepts(candidate);
+        }
+
+        private Object resolve(InfuseInjector injector) {
+            return resolve(injector, null);
+        }
+
+        private Object resolve(InfuseInjector injector, @Nullable List<ConstructionTask> stack) {
+            if (point.isOptional() && point.isPrimitive()) {
+                throw new IllegalArgumentException("Optional constructor parameter " + point.name()
+                        + " in " + point.declaringType().getName()
+                        + " cannot target primitive type " + point.type().getName());
+            }
+
+            return injector.provide(point, injector, stack);
         }
+    }
 
-        private boolean supports(Object candidate) {
-            if (candidate == null) {
-                return !primitive;
-            }
+    /**
+     * A fixed-size cache keyed by the runtime classes of an argument array, for the signatures a class is constructed
+     * with. Each signature hashes to a single slot and replaces whatever entry was there, so the cache stays bounded
+     * however many distinct argument types it sees, and an evicted signature is simply recomputed. Entries are
+     * immutable and published through an {@link AtomicReferenceArray}, so reads and writes never lock.
+     */
+    private static final class SignatureCache<V> {
+        private static final int SLOTS = 32;
 
-            return type.isInstance(candidate);
+        private final AtomicReferenceArray<SignatureEntry<V>> entries = new AtomicReferenceArray<>(SLOTS);
+
+        private @Nullable V get(Object[] args) {
+            int hash = hash(args);
+            SignatureEntry<V> entry = entries.get(hash & (SLOTS - 1));
+
+            return entry != null && entry.matches(hash, args) ? entry.value : null;
         }
 
-        private Object resolve(InfuseInjector injector) {
-            if (optional && primitive) {
-                throw new IllegalArgumentException("Optional constructor parameter " + name
-                        + " in " + declaringType.getName()
-                        + " cannot target primitive type " + type.getName());
-            }
+        private void put(Object[] args, V value) {
+            int hash = hash(args);
+            entries.lazySet(hash & (SLOTS - 1), new SignatureEntry<>(hash, args, value));
+        }
 
-            Object value = injector.provide(type, context);
+        private static int hash(Object[] args) {
+            int hash = args.length;
 
-            if (optional && value == null) {
-                return null;
+            for (Object arg : args) {
+                hash = 31 * hash + (arg == null ? 0 : arg.getClass().hashCode());
             }
 
-            return value;
+            return hash ^ (hash >>> 16);
         }
     }
 
-    private static final class ConstructorArgumentsKey {
-        private final Class<?>[] argumentTypes;
+    private static final class SignatureEntry<V> {
         private final int hash;
+        private final Class<?>[] argumentTypes;
+        private final V value;
 
-        private ConstructorArgumentsKey(Object[] args) {
+        private SignatureEntry(int hash, Object[] args, V value) {
+            this.hash = hash;
             this.argumentTypes = new Class<?>[args.length];
+            this.value = value;
 
             for (int i = 0; i < args.length; i++) {
-                Object arg = args[i];
-                this.argumentTypes[i] = arg == null ? null : arg.getClass();
+                argumentTypes[i] = args[i] == null ? null : args[i].getClass();
             }
-
-            this.hash = Arrays.hashCode(argumentTypes);
         }
 
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) {
-                return true;
-            }
-
-            if (!(obj instanceof ConstructorArgumentsKey)) {
+        private boolean matches(int hash, Object[] args) {
+            if (this.hash != hash || argumentTypes.length != args.length) {
                 return false;
             }
 
-            ConstructorArgumentsKey other = (ConstructorArgumentsKey) obj;
-            return Arrays.equals(argumentTypes, other.argumentTypes);
-        }
+            for (int i = 0; i < args.length; i++) {
+                Class<?> actual = args[i] == null ? null : args[i].getClass();
 
-        @Override
-        public int hashCode() {
-            return hash;
+                if (argumentTypes[i] != actual) {
+                    return false;
+                }
+            }
+
+            return true;
         }
     }
 
@@ -1344,11 +3034,11 @@ public class InfuseInjector implements Injector {
         private final Class<?> type;
         private final Constructor<?> injectable;
         private final Map<Integer, Constructor<?>[]> constructorsByArity;
-        private final ConcurrentMap<ConstructorArgsKey, Constructor<?>> heuristicCache;
+        private final SignatureCache<Constructor<?>> heuristicCache;
 
         private ConstructorCache(Class<?> type) {
             this.type = type;
-            this.heuristicCache = new ConcurrentHashMap<>();
+            this.heuristicCache = new SignatureCache<>();
 
             Constructor<?>[] declaredConstructors = type.getDeclaredConstructors();
             Constructor<?> injectableCandidate = null;
@@ -1430,8 +3120,7 @@ public class InfuseInjector implements Injector {
         }
 
         private Constructor<?> resolveHeuristic(InfuseInjector injector, Object... args) {
-            ConstructorArgsKey key = new ConstructorArgsKey(args);
-            Constructor<?> cached = heuristicCache.get(key);
+            Constructor<?> cached = heuristicCache.get(args);
 
             if (cached != null) {
                 return cached;
@@ -1455,11 +3144,10 @@ public class InfuseInjector implements Injector {
             }
 
             if (bestMatch != null) {
-                Constructor<?> previous = heuristicCache.putIfAbsent(key, bestMatch);
-                return previous != null ? previous : bestMatch;
+                heuristicCache.put(args, bestMatch);
             }
 
-            return null;
+            return bestMatch;
         }
 
         private int computeMatchScore(InfuseInjector injector, Constructor<?> constructor, Object... args) {
@@ -1496,69 +3184,61 @@ public class InfuseInjector implements Injector {
 
             return matchScore;
         }
+    }
 
-        private static final class ConstructorArgsKey {
-            private final Class<?>[] argumentTypes;
-            private final int hash;
+    /**
+     * Instances to destroy when the injector shuts down, in the order they were recorded. Appending is lock-free;
+     * only {@link #record(Binding, Object)}, used for instances that may be reported more than once, locks to skip
+     * duplicates.
+     */
+    private static final class ScopedInstanceRegistry {
+        private final ReentrantLock recordedLock = new ReentrantLock();
+        private final Set<Object> recorded = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final ConcurrentLinkedQueue<ScopedInstanceEntry> order = new ConcurrentLinkedQueue<>();
 
-            private ConstructorArgsKey(Object... args) {
-                this.argumentTypes = new Class<?>[args.length];
+        private void append(Binding<?> binding, Object instance) {
+            order.add(new ScopedInstanceEntry(binding, instance));
+        }
 
-                for (int i = 0; i < args.length; i++) {
-                    this.argumentTypes[i] = args[i] == null ? null : args[i].getClass();
-                }
+        private void record(Binding<?> binding, Object instance) {
+            if (binding == null || instance == null) {
+                return;
+            }
 
-                this.hash = Arrays.hashCode(argumentTypes);
+            BindingScope scope = binding.getScope();
+            if (!ScopeProviders.shouldTrackForShutdown(scope)) {
+                return;
             }
 
-            @Override
-            public boolean equals(Object obj) {
-                if (this == obj) {
-                    return true;
-                }
+            recordedLock.lock();
 
-                if (!(obj instanceof ConstructorArgsKey)) {
-                    return false;
+            try {
+                if (!recorded.add(instance)) {
+                    return;
                 }
-
-                ConstructorArgsKey other = (ConstructorArgsKey) obj;
-                return Arrays.equals(argumentTypes, other.argumentTypes);
+            } finally {
+                recordedLock.unlock();
             }
 
-            @Override
-            public int hashCode() {
-                return hash;
-            }
+            append(binding, instance);
         }
-    }
 
-    private static final class ScopedInstanceRegistry {
-        private final Map<Object, ScopedInstanceEntry> instances = new IdentityHashMap<>();
-        private final List<ScopedInstanceEntry> order = new ArrayList<>();
+        private List<ScopedInstanceEntry> drain() {
+            List<ScopedInstanceEntry> snapshot = new ArrayList<>();
+            ScopedInstanceEntry entry;
 
-        private synchronized void record(Binding<?> binding, Object instance) {
-            if (binding == null || instance == null) {
-                return;
+            while ((entry = order.poll()) != null) {
+                snapshot.add(entry);
             }
 
-            BindingScope scope = binding.getScope();
-            if (!ScopeProviders.shouldTrackForShutdown(scope)) {
-                return;
-            }
+            recordedLock.lock();
 
-            if (instances.containsKey(instance)) {
-                return;
+            try {
+                recorded.clear();
+            } finally {
+                recordedLock.unlock();
             }
 
-            ScopedInstanceEntry entry = new ScopedInstanceEntry(binding, instance);
-            instances.put(instance, entry);
-            order.add(entry);
-        }
-
-        private synchronized List<ScopedInstanceEntry> drain() {
-            List<ScopedInstanceEntry> snapshot = new ArrayList<>(order);
-            instances.clear();
-            order.clear();
             return snapshot;
         }
     }
@@ -1573,67 +3253,389 @@ public class InfuseInjector implements Injector {
         }
     }
 
-    private static class InjectionPlan {
-        private final List<Field> injectableFields;
-        private final List<Method> injectableMethods;
-        private final List<Method> postConstructMethods;
-        private final List<Method> preDestroyMethods;
-        private final List<Method> postInjectMethods;
+    /**
+     * What an injection point requests and where, independent of any injector. Sites are built once per member and
+     * shared by every injector through the {@link ClassMetadataCache}.
+     */
+    private static final class InjectionSite {
+        private final Class<?> type;
+        private final Class<?> declaringType;
+        private final ElementType element;
+        private final String name;
+        private final Annotation[] annotations;
+        private final @Nullable BindingKey lookupKey;
+        private final @Nullable RuntimeException qualifierFailure;
+        private final boolean optional;
+        private final boolean primitive;
+
+        private InjectionSite(Class<?> type,
+                              Class<?> declaringType,
+                              ElementType element,
+                              String name,
+                              Annotation[] annotations) {
+            this.type = type;
+            this.declaringType = declaringType;
+            this.element = element;
+            this.name = name;
+            this.annotations = annotations;
+            BindingKey resolved = null;
+            RuntimeException failure = null;
+
+            try {
+                resolved = BindingKey.lookup(type, InjectionUtils.resolveQualifier(annotations));
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+
+            this.lookupKey = resolved;
+            this.qualifierFailure = failure;
+            this.optional = InjectionUtils.isOptional(annotations);
+            this.primitive = type.isPrimitive();
+        }
+
+        private static InjectionSite field(Field field) {
+            return new InjectionSite(field.getType(), field.getDeclaringClass(), ElementType.FIELD, field.getName(),
+                    field.getAnnotations());
+        }
+
+        private static InjectionSite parameter(Executable executable, Parameter parameter, ElementType element) {
+            return new InjectionSite(parameter.getType(), executable.getDeclaringClass(), element,
+                    parameter.getName(), parameter.getAnnotations());
+        }
+
+        private boolean accepts(Object candidate) {
+            if (candidate == null) {
+                return !primitive;
+            }
+
+            return type.isInstance(candidate);
+        }
+    }
+
+    /**
+     * An {@link InjectionSite} as resolved by one injector, together with the {@link Context} handed to providers.
+     * Contexts that do not depend on the injected instance are built once.
+     * <p>
+     * Each point also acts as an inline cache for the injector that owns it, remembering the bindings it resolved to
+     * and, once known, the fixed instance those bindings provide.
+     */
+    private static final class InjectionPoint {
+        private final InjectionSite site;
+        private final WeakReference<InfuseInjector> owner;
+        // Inline cache, filled by the owning injector on first resolution. Both are held weakly, as plans live on
+        // their classes and the cached bindings and instances can lead back to the owner; the owner holds them strongly
+        // for as long as it lives.
+        private volatile @Nullable WeakReference<List<Binding<?>>> bindings;
+        private volatile @Nullable WeakReference<Object> constant;
+
+        private InjectionPoint(InfuseInjector injector, InjectionSite site) {
+            this.site = site;
+            this.owner = injector.reference;
+        }
+
+        private static InjectionPoint[] of(InfuseInjector injector, InjectionSite[] sites) {
+            InjectionPoint[] points = new InjectionPoint[sites.length];
+
+            for (int i = 0; i < sites.length; i++) {
+                points[i] = new InjectionPoint(injector, sites[i]);
+            }
+
+            return points;
+        }
+
+        private Class<?> type() {
+            return site.type;
+        }
+
+        private Class<?> declaringType() {
+            return site.declaringType;
+        }
+
+        private ElementType element() {
+            return site.element;
+        }
+
+        private String name() {
+            return site.name;
+        }
+
+        private BindingKey lookupKey() {
+            if (site.qualifierFailure != null) {
+                throw site.qualifierFailure;
+            }
+
+            return site.lookupKey;
+        }
+
+        private boolean isOptional() {
+            return site.optional;
+        }
+
+        private boolean isPrimitive() {
+            return site.primitive;
+        }
+
+        private boolean isOwnedBy(InfuseInjector candidate) {
+            return owner.get() == candidate;
+        }
+
+        private @Nullable List<Binding<?>> cachedBindings() {
+            WeakReference<List<Binding<?>>> bindings = this.bindings;
+
+            return bindings != null ? bindings.get() : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void cacheBindings(List<? extends Binding<?>> resolved) {
+            bindings = new WeakReference<>((List<Binding<?>>) resolved);
+        }
+
+        private @Nullable Object cachedConstant() {
+            WeakReference<Object> constant = this.constant;
+
+            return constant != null ? constant.get() : null;
+        }
+
+        private void cacheConstant(Object instance) {
+            constant = new WeakReference<>(instance);
+        }
+
+        /**
+         * @param requester the injector resolving this point, which is not the owner for children stamped from a
+         *                  template that share the owner's plans
+         */
+        private Context<?> context(InfuseInjector requester, Object target) {
+            if (site.element != ElementType.FIELD) {
+                // Parameters are requested on behalf of the injector rather than a target.
+                return new Context<>(site.declaringType, requester, requester, site.element, site.name,
+                        site.annotations);
+            }
+
+            return new Context<>(target.getClass(), target, requester, site.element, site.name, site.annotations);
+        }
+
+        /**
+         * @return the dependency and where it is requested, as a step of a {@link ProvisionException}'s resolution path
+         */
+        private String describe() {
+            BindingKey lookupKey = site.lookupKey;
+            String dependency = lookupKey == null || lookupKey.getQualifier().isDefault()
+                    ? site.type.getName()
+                    : site.type.getName() + " qualified by " + lookupKey.getQualifier();
+
+            return dependency + " requested at " + ResolutionScopes.RequestOrigin.at(this).describe();
+        }
+    }
+
+    private static final class FieldSite {
+        private final Field field;
+        private final InjectionSite dependency;
+
+        private FieldSite(Field field) {
+            this.field = field;
+            this.dependency = InjectionSite.field(field);
+        }
+
+        private void set(Object instance, @Nullable Object value) throws IllegalAccessException {
+            field.set(instance, value);
+        }
+    }
+
+    private static final class MethodSite {
+        private final Method method;
+        private final InjectionSite[] parameters;
+        private final int priority;
+        // The position of this site among the methods of its class, as numbered for a hidden class injector.
+        private final int index;
+
+        private MethodSite(Method method, int priority, int index) {
+            Parameter[] reflectionParameters = method.getParameters();
+
+            this.method = method;
+            this.parameters = new InjectionSite[reflectionParameters.length];
+            this.priority = priority;
+            this.index = index;
+
+            for (int i = 0; i < reflectionParameters.length; i++) {
+                parameters[i] = InjectionSite.parameter(method, reflectionParameters[i], ElementType.METHOD);
+            }
+        }
+
+        private int priority() {
+            return priority;
+        }
+
+        private void invoke(Object instance, Object[] arguments) throws ReflectiveOperationException {
+            method.invoke(instance, arguments);
+        }
+    }
+
+    private static final class FieldInjectionPoint {
+        private final FieldSite site;
+        private final InjectionPoint dependency;
+        // Whether the hidden class injector of the owning plan assigns this field.
+        private final boolean generated;
+
+        private FieldInjectionPoint(InfuseInjector injector, FieldSite site, boolean generated) {
+            this.site = site;
+            this.dependency = new InjectionPoint(injector, site.dependency);
+            this.generated = generated;
+        }
+
+        private Field field() {
+            return site.field;
+        }
+
+        private boolean isGenerated() {
+            return generated;
+        }
+
+        /**
+         * Assigns a resolved value, leaving a primitive field untouched when its optional dependency is missing.
+         */
+        private void assign(Object instance, @Nullable Object value) throws IllegalAccessException {
+            if (value != null || !dependency.isOptional()) {
+                site.set(instance, value);
+            } else if (!dependency.isPrimitive()) {
+                site.set(instance, null);
+            }
+        }
+
+        private InjectionPoint dependency() {
+            return dependency;
+        }
+    }
+
+    private static final class MethodInjectionPoint {
+        private final MethodSite site;
+        private final InjectionPoint[] parameters;
+        private final int priority;
+        private final @Nullable HiddenClassMemberInjector members;
+
+        private MethodInjectionPoint(InfuseInjector injector,
+                                     MethodSite site,
+                                     @Nullable HiddenClassMemberInjector members) {
+            this.site = site;
+            this.parameters = InjectionPoint.of(injector, site.parameters);
+            this.priority = site.priority;
+            this.members = members;
+        }
+
+        private String getName() {
+            return site.method.getName();
+        }
+
+        private void invoke(Object instance, Object[] arguments) throws ReflectiveOperationException {
+            if (members != null && members.call(instance, site.index)) {
+                return;
+            }
+
+            site.invoke(instance, arguments);
+        }
+
+        private InjectionPoint[] parameters() {
+            return parameters;
+        }
+
+        private int priority() {
+            return priority;
+        }
+    }
+
+    /**
+     * The injected members and lifecycle methods of a class, found by reflection once.
+     */
+    private static final class ClassMetadata {
+        private static final FieldSite[] NO_FIELDS = new FieldSite[0];
+        private static final MethodSite[] NO_METHODS = new MethodSite[0];
 
-        public InjectionPlan(Class<?> clazz) {
-            this.injectableFields = new ArrayList<>();
-            this.injectableMethods = new ArrayList<>();
-            this.postConstructMethods = new ArrayList<>();
-            this.preDestroyMethods = new ArrayList<>();
-            this.postInjectMethods = new ArrayList<>();
+        private final Class<?> type;
+        private final FieldSite[] fields;
+        private final MethodSite[] methods;
+        private final MethodSite[] postConstructMethods;
+        private final MethodSite[] preDestroyMethods;
+        private final MethodSite[] postInjectMethods;
+        // Every method site, at its index.
+        private final MethodSite[] callbacks;
+        // Defined the first time an injector using hidden classes asks for it; empty if none can be defined.
+        private volatile @Nullable Optional<HiddenClassMemberInjector> hiddenClassInjector;
+
+        private ClassMetadata(Class<?> clazz) {
+            List<FieldSite> fields = new ArrayList<>();
+            List<MethodSite> methods = new ArrayList<>();
+            List<MethodSite> postConstructMethods = new ArrayList<>();
+            List<MethodSite> preDestroyMethods = new ArrayList<>();
+            List<MethodSite> postInjectMethods = new ArrayList<>();
+            List<MethodSite> callbacks = new ArrayList<>();
 
             for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
                 for (Field field : current.getDeclaredFields()) {
                     if (field.isAnnotationPresent(Inject.class)) {
                         ensureAccessible(field);
-                        injectableFields.add(field);
+                        fields.add(new FieldSite(field));
                     }
                 }
 
                 for (Method method : current.getDeclaredMethods()) {
                     if (method.isAnnotationPresent(Inject.class)) {
                         ensureAccessible(method);
-                        injectableMethods.add(method);
+                        methods.add(callback(callbacks, method, 0));
                     } else if (method.isAnnotationPresent(PostConstruct.class)) {
                         ensureAccessible(method);
-                        postConstructMethods.add(method);
+                        postConstructMethods.add(callback(callbacks, method,
+                                method.getAnnotation(PostConstruct.class).priority()));
                     } else if (method.isAnnotationPresent(PreDestroy.class)) {
                         ensureAccessible(method);
-                        preDestroyMethods.add(method);
+                        preDestroyMethods.add(callback(callbacks, method, 0));
                     } else if (method.isAnnotationPresent(PostInject.class)) {
                         ensureAccessible(method);
-                        postInjectMethods.add(method);
+                        postInjectMethods.add(callback(callbacks, method,
+                                method.getAnnotation(PostInject.class).priority()));
                     }
                 }
             }
 
-            postConstructMethods.sort(Comparator.comparingInt(m -> m.getAnnotation(PostConstruct.class).priority()));
-            postInjectMethods.sort(Comparator.comparingInt(m -> m.getAnnotation(PostInject.class).priority()));
-        }
+            postConstructMethods.sort(Comparator.comparingInt(MethodSite::priority));
+            postInjectMethods.sort(Comparator.comparingInt(MethodSite::priority));
 
-        public List<Field> getInjectableFields() {
-            return injectableFields;
+            this.type = clazz;
+            this.fields = fields.toArray(NO_FIELDS);
+            this.methods = methods.toArray(NO_METHODS);
+            this.postConstructMethods = postConstructMethods.toArray(NO_METHODS);
+            this.preDestroyMethods = preDestroyMethods.toArray(NO_METHODS);
+            this.postInjectMethods = postInjectMethods.toArray(NO_METHODS);
+            this.callbacks = callbacks.toArray(NO_METHODS);
         }
 
-        public List<Method> getInjectableMethods() {
-            return injectableMethods;
-        }
+        private static MethodSite callback(List<MethodSite> callbacks, Method method, int priority) {
+            MethodSite site = new MethodSite(method, priority, callbacks.size());
+            callbacks.add(site);
 
-        public List<Method> getPostConstructMethods() {
-            return postConstructMethods;
+            return site;
         }
 
-        public List<Method> getPreDestroyMethods() {
-            return preDestroyMethods;
-        }
+        private @Nullable HiddenClassMemberInjector hiddenClassInjector() {
+            Optional<HiddenClassMemberInjector> injector = hiddenClassInjector;
 
-        public List<Method> getPostInjectMethods() {
-            return postInjectMethods;
+            if (injector == null) {
+                Field[] injectedFields = new Field[fields.length];
+                Method[] callbackMethods = new Method[callbacks.length];
+
+                for (int i = 0; i < fields.length; i++) {
+                    injectedFields[i] = fields[i].field;
+                }
+
+                for (int i = 0; i < callbacks.length; i++) {
+                    callbackMethods[i] = callbacks[i].method;
+                }
+
+                // Racing threads may each define a hidden class; only one of them is kept.
+                injector = Optional.ofNullable(HiddenClassMemberInjector.generate(type, injectedFields,
+                        callbackMethods));
+                hiddenClassInjector = injector;
+            }
+
+            return injector.orElse(null);
         }
 
         private static void ensureAccessible(AccessibleObject accessibleObject) {
@@ -1643,4 +3645,148 @@ public class InfuseInjector implements Injector {
         }
     }
 
+    /**
+     * Metadata that does not depend on bindings, reflected once per class however many injectors use it. The caches
+     * are {@link ClassValue}s rather than maps keyed by class, so the metadata of a class lives exactly as long as the
+     * class itself and never keeps the class loader of an unloaded plugin alive. Each injector keeps its own
+     * {@link InjectionPlan}s and {@link ConstructorArgumentPlan}s on top, holding the inline caches of its resolutions.
+     */
+    private static final class ClassMetadataCache {
+        private static final ClassValue<ClassMetadata> CLASSES = new ClassValue<ClassMetadata>() {
+            @Override
+            protected ClassMetadata computeValue(Class<?> type) {
+                return new ClassMetadata(type);
+            }
+        };
+
+        private static final ClassValue<ConstructorCache> CONSTRUCTORS = new ClassValue<ConstructorCache>() {
+            @Override
+            protected ConstructorCache computeValue(Class<?> type) {
+                return new ConstructorCache(type);
+            }
+        };
+
+        private static final ClassValue<ConcurrentMap<Constructor<?>, ConstructorMetadata>> CONSTRUCTOR_PARAMETERS =
+                new ClassValue<ConcurrentMap<Constructor<?>, ConstructorMetadata>>() {
+                    @Override
+                    protected ConcurrentMap<Constructor<?>, ConstructorMetadata> computeValue(Class<?> type) {
+                        return new ConcurrentHashMap<>();
+                    }
+                };
+
+        private ClassMetadataCache() {
+        }
+
+        private static ClassMetadata of(Class<?> clazz) {
+            return CLASSES.get(clazz);
+        }
+
+        private static ConstructorCache constructors(Class<?> clazz) {
+            return CONSTRUCTORS.get(clazz);
+        }
+
+        private static ConstructorMetadata parameters(Constructor<?> constructor) {
+            ConcurrentMap<Constructor<?>, ConstructorMetadata> parameters =
+                    CONSTRUCTOR_PARAMETERS.get(constructor.getDeclaringClass());
+            ConstructorMetadata metadata = parameters.get(constructor);
+
+            return metadata != null ? metadata : parameters.computeIfAbsent(constructor, ConstructorMetadata::new);
+        }
+    }
+
+    private static final class InjectionPlan {
+        private static final FieldInjectionPoint[] NO_FIELDS = new FieldInjectionPoint[0];
+        private static final MethodInjectionPoint[] NO_METHODS = new MethodInjectionPoint[0];
+
+        private final FieldInjectionPoint[] fields;
+        private final MethodInjectionPoint[] methods;
+        private final MethodInjectionPoint[] postConstructMethods;
+        private final MethodInjectionPoint[] preDestroyMethods;
+        private final MethodInjectionPoint[] postInjectMethods;
+        private final @Nullable HiddenClassMemberInjector members;
+        // Whether the graph reached through the injected members was validated, in the production stage.
+        private volatile boolean validated;
+
+        private InjectionPlan(InfuseInjector injector, ClassMetadata metadata) {
+            this.members = injector.options.getMemberInjection() == InjectorOptions.MemberInjection.HIDDEN_CLASSES
+                    ? metadata.hiddenClassInjector()
+                    : null;
+            this.fields = metadata.fields.length == 0 ? NO_FIELDS : new FieldInjectionPoint[metadata.fields.length];
+
+            for (int i = 0; i < fields.length; i++) {
+                boolean generated = members != null && members.assigns(i);
+                fields[i] = new FieldInjectionPoint(injector, metadata.fields[i], generated);
+            }
+
+            this.methods = points(injector, metadata.methods, members);
+            this.postConstructMethods = points(injector, metadata.postConstructMethods, members);
+            this.preDestroyMethods = points(injector, metadata.preDestroyMethods, members);
+            this.postInjectMethods = points(injector, metadata.postInjectMethods, members);
+        }
+
+        private static MethodInjectionPoint[] points(InfuseInjector injector,
+                                                     MethodSite[] sites,
+                                                     @Nullable HiddenClassMemberInjector members) {
+            if (sites.length == 0) {
+                return NO_METHODS;
+            }
+
+            MethodInjectionPoint[] points = new MethodInjectionPoint[sites.length];
+
+            for (int i = 0; i < sites.length; i++) {
+                points[i] = new MethodInjectionPoint(injector, sites[i], members);
+            }
+
+            return points;
+        }
+
+        /**
+         * Adds the injection points of the injected fields and methods and of the lifecycle callbacks that take
+         * parameters, all of which the injector resolves.
+         */
+        private void addDependencies(List<InjectionPoint> dependencies) {
+            for (FieldInjectionPoint field : fields) {
+                dependencies.add(field.dependency());
+            }
+
+            addParameters(dependencies, methods);
+            addParameters(dependencies, postConstructMethods);
+            addParameters(dependencies, postInjectMethods);
+        }
+
+        private static void addParameters(List<InjectionPoint> dependencies, MethodInjectionPoint[] methods) {
+            for (MethodInjectionPoint method : methods) {
+                dependencies.addAll(Arrays.asList(method.parameters()));
+            }
+        }
+
+        /**
+         * @return an array to collect the values of the fields the hidden class injector assigns, or {@code null} if
+         * this plan has none
+         */
+        private @Nullable Object[] newGeneratedValues() {
+            return members == null ? null : new Object[fields.length];
+        }
+
+        private FieldInjectionPoint[] getFields() {
+            return fields;
+        }
+
+        private MethodInjectionPoint[] getMethods() {
+            return methods;
+        }
+
+        private MethodInjectionPoint[] getPostConstructMethods() {
+            return postConstructMethods;
+        }
+
+        private MethodInjectionPoint[] getPreDestroyMethods() {
+            return preDestroyMethods;
+        }
+
+        private MethodInjectionPoint[] getPostInjectMethods() {
+            return postInjectMethods;
+        }
+    }
+
 }
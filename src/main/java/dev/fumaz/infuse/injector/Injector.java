@@ -1,12 +1,14 @@
 package dev.fumaz.infuse.injector;
 
 import dev.fumaz.infuse.bind.Binding;
+import dev.fumaz.infuse.bind.Key;
 import dev.fumaz.infuse.context.Context;
 import dev.fumaz.infuse.bind.BindingScope;
 import dev.fumaz.infuse.scope.ScopeHandle;
 import dev.fumaz.infuse.scope.Scopes;
 import dev.fumaz.infuse.module.Module;
 import dev.fumaz.infuse.provider.Provider;
+import dev.fumaz.infuse.provider.ProviderHandle;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,16 +28,57 @@ public interface Injector {
         return create(Arrays.asList(modules));
     }
 
+    /**
+     * Creates an injector configured by the given options.
+     *
+     * @param options the options to apply, inherited by child injectors
+     * @param modules the modules to install
+     * @return the new injector
+     * @throws dev.fumaz.infuse.exception.ConfigurationException if the options require validation and the binding
+     *                                                         graph is invalid
+     */
+    static @NotNull Injector create(@NotNull InjectorOptions options, @NotNull List<Module> modules) {
+        return new InfuseInjector(null, modules, options);
+    }
+
+    static @NotNull Injector create(@NotNull InjectorOptions options, @NotNull Module... modules) {
+        return create(options, Arrays.asList(modules));
+    }
+
     void inject(@NotNull Object object);
 
     <T> @Nullable T provide(@NotNull Class<T> type, @NotNull Context<?> context);
 
     <T> @Nullable T provide(@NotNull Class<T> type, @NotNull Object calling);
 
+    /**
+     * Provides the dependency identified by the given key, including its qualifier.
+     *
+     * @param key     the key to provide
+     * @param calling the object requesting the dependency
+     * @return the provided instance
+     */
+    <T> @Nullable T provide(@NotNull Key<T> key, @NotNull Object calling);
+
     <T> @Nullable T construct(@NotNull Class<T> type, @NotNull Object... args);
 
     <T> @Nullable Provider<T> getProvider(@NotNull Class<T> type);
 
+    <T> @Nullable Provider<T> getProvider(@NotNull Key<T> key);
+
+    /**
+     * Resolves the dependency for the given key once and returns a handle that provides it without any further
+     * lookups.
+     *
+     * @param key the key to resolve
+     * @return the resolved handle
+     */
+    <T> @NotNull ProviderHandle<T> handle(@NotNull Key<T> key);
+
+    default <T> @NotNull ProviderHandle<T> handle(@NotNull Class<T> type) {
+        return handle(Key.of(type));
+    }
+
     @NotNull List<Module> getModules();
 
     @NotNull List<Binding<?>> getBindings();
@@ -52,6 +95,14 @@ public interface Injector {
         return child(Arrays.asList(modules));
     }
 
+    /**
+     * Starts a {@link ChildTemplate} of this injector, for creating many short-lived children that only differ in
+     * a few bound instances.
+     */
+    default @NotNull ChildTemplate.Builder childTemplate() {
+        return ChildTemplate.builder(this);
+    }
+
     default @NotNull ScopeHandle openScope(@NotNull BindingScope scope) {
         return Scopes.open(this, scope, null);
     }
@@ -0,0 +1,117 @@
+package dev.fumaz.infuse.injector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Configuration object controlling how an {@link Injector} created through
+ * {@link Injector#create(InjectorOptions, java.util.List)} validates and provisions its bindings. Child injectors
+ * inherit the options of their parent.
+ */
+public final class InjectorOptions {
+
+    private final Stage stage;
+    private final DiagnosticsSink diagnostics;
+    private final MemberInjection memberInjection;
+
+    private InjectorOptions(Stage stage, DiagnosticsSink diagnostics, MemberInjection memberInjection) {
+        this.stage = stage;
+        this.diagnostics = diagnostics;
+        this.memberInjection = memberInjection;
+    }
+
+    public @NotNull Stage getStage() {
+        return stage;
+    }
+
+    public @NotNull DiagnosticsSink getDiagnostics() {
+        return diagnostics;
+    }
+
+    public @NotNull MemberInjection getMemberInjection() {
+        return memberInjection;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static InjectorOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * How much checking an injector performs, and when.
+     */
+    public enum Stage {
+        /**
+         * Every provision tracks the resolution path, so cycles are detected as they happen and reported with the
+         * full chain of injection points that led to them.
+         */
+        DEVELOPMENT,
+        /**
+         * The whole binding graph is validated once when the injector is created, and every problem found is
+         * reported together in a single {@link dev.fumaz.infuse.exception.ConfigurationException}. Provisions then
+         * skip per-call cycle tracking.
+         * <p>
+         * Bindings to custom providers are opaque to validation; a cycle that only exists through such a provider is
+         * not detected in this stage.
+         */
+        PRODUCTION
+    }
+
+    /**
+     * How an injector assigns injected fields and calls injection methods and lifecycle callbacks.
+     */
+    public enum MemberInjection {
+        /**
+         * Through reflection, on every Java version.
+         */
+        REFLECTION,
+        /**
+         * Through a hidden class defined at runtime for each injected class, which assigns the fields and calls the
+         * callbacks that class declares directly, without a reflective call per member. Requires Java 15 or later,
+         * and a class in the same module as this library or in a package open to it. Members a hidden class cannot
+         * reach, and every member of a class none can be defined for, are injected as with {@link #REFLECTION}.
+         * <p>
+         * Unlike {@link #REFLECTION}, the generated fields of an object are assigned together once all of their values
+         * are resolved, rather than each as soon as its value is: an object resolved meanwhile that reads them through
+         * the one being injected sees them unassigned. Every hidden class is called through the same interface call
+         * site, which is megamorphic once more than two classes are injected this way.
+         */
+        HIDDEN_CLASSES
+    }
+
+    public static final class Builder {
+        private Stage stage = Stage.DEVELOPMENT;
+        private DiagnosticsSink diagnostics = DiagnosticsSink.silent();
+        private MemberInjection memberInjection = MemberInjection.REFLECTION;
+
+        public Builder stage(@NotNull Stage stage) {
+            this.stage = Objects.requireNonNull(stage, "stage");
+            return this;
+        }
+
+        /**
+         * Sets where provisioning failures are reported, in addition to being thrown. Defaults to
+         * {@link DiagnosticsSink#silent()}.
+         */
+        public Builder diagnostics(@NotNull DiagnosticsSink diagnostics) {
+            this.diagnostics = Objects.requireNonNull(diagnostics, "diagnostics");
+            return this;
+        }
+
+        /**
+         * Sets how injected members are assigned and called. Defaults to {@link MemberInjection#REFLECTION}.
+         */
+        public Builder memberInjection(@NotNull MemberInjection memberInjection) {
+            this.memberInjection = Objects.requireNonNull(memberInjection, "memberInjection");
+            return this;
+        }
+
+        public InjectorOptions build() {
+            return new InjectorOptions(stage, diagnostics, memberInjection);
+        }
+    }
+}
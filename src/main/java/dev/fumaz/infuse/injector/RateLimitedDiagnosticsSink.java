@@ -0,0 +1,72 @@
+package dev.fumaz.infuse.injector;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prints provisioning failures to a stream, at most a fixed number per time window. Suppressed failures are only
+ * counted, without building their messages, and the count is printed with the first report of a later window.
+ */
+final class RateLimitedDiagnosticsSink implements DiagnosticsSink {
+
+    static final DiagnosticsSink SILENT = failure -> {
+    };
+
+    private final PrintStream stream;
+    private final int maxReports;
+    private final long windowMillis;
+    private final AtomicLong windowStart;
+    private final AtomicInteger reported = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    RateLimitedDiagnosticsSink(@NotNull PrintStream stream, int maxReports, long windowMillis) {
+        if (maxReports < 0) {
+            throw new IllegalArgumentException("maxReports must not be negative");
+        }
+
+        this.stream = stream;
+        this.maxReports = maxReports;
+        this.windowMillis = windowMillis;
+        this.windowStart = new AtomicLong(System.currentTimeMillis());
+    }
+
+    @Override
+    public void provisionFailed(@NotNull Throwable failure) {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            reported.set(0);
+        }
+
+        if (reported.incrementAndGet() > maxReports) {
+            suppressed.incrementAndGet();
+            return;
+        }
+
+        int skipped = suppressed.getAndSet(0);
+        StringBuilder builder = new StringBuilder();
+
+        if (skipped > 0) {
+            builder.append("[infuse] ").append(skipped).append(" provisioning failures were not reported")
+                    .append(System.lineSeparator());
+        }
+
+        builder.append("[infuse] ").append(failure.getMessage());
+
+        Throwable cause = failure.getCause();
+
+        while (cause != null && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause != null) {
+            builder.append(System.lineSeparator()).append("Caused by: ").append(cause);
+        }
+
+        stream.println(builder);
+    }
+}
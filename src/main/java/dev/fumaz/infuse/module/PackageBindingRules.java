@@ -5,9 +5,11 @@ import dev.fumaz.infuse.annotation.PostInject;
 import dev.fumaz.infuse.annotation.PreDestroy;
 import dev.fumaz.infuse.annotation.Scope;
 import dev.fumaz.infuse.annotation.Singleton;
+import dev.fumaz.infuse.bind.Binding;
 import dev.fumaz.infuse.bind.BindingBuilder;
 import dev.fumaz.infuse.bind.BindingScope;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
@@ -133,6 +135,36 @@ public final class PackageBindingRules {
         };
     }
 
+    /**
+     * Creates the binding an injector registers for a type without a binding the first time it is requested: the
+     * scope declared on the class, as the {@link #singleton()} and {@link #scoped()} rules would bind it. Eager
+     * singletons are bound lazily, since the binding only exists once the type is requested.
+     *
+     * @return the binding, or {@code null} if the type is not constructable or declares no scope
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @Nullable Binding<T> justInTime(@NotNull Class<T> type) {
+        Objects.requireNonNull(type, "type");
+
+        if (!DEFAULT_CLASS_FILTER.test(type)) {
+            return null;
+        }
+
+        ScopeDefinition scope = findScopeDefinition(type);
+
+        if (scope == null) {
+            return null;
+        }
+
+        BindingBuilder<T> builder = new BindingBuilder<>(type, new ArrayList<>(1));
+
+        if (scope.isSingleton()) {
+            return builder.toSingleton();
+        }
+
+        return builder.inScope(scope.getScope()).to(type);
+    }
+
     private static boolean hasLifecycleMethods(Class<?> type) {
         for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
             Method[] methods;
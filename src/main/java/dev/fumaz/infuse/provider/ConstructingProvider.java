@@ -0,0 +1,31 @@
+package dev.fumaz.infuse.provider;
+
+import dev.fumaz.infuse.context.Context;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A {@link ConstructingProvider} is a {@link Provider} that constructs and injects a new instance of an implementation
+ * class every time it is called.
+ *
+ * @param <T> the type of the class
+ */
+public final class ConstructingProvider<T> implements Provider<T> {
+
+    private final @NotNull Class<? extends T> implementation;
+
+    public ConstructingProvider(@NotNull Class<? extends T> implementation) {
+        this.implementation = Objects.requireNonNull(implementation, "implementation");
+    }
+
+    @Override
+    public T provide(Context<?> context) {
+        return context.getInjector().construct(implementation);
+    }
+
+    public @NotNull Class<? extends T> getImplementation() {
+        return implementation;
+    }
+
+}
@@ -0,0 +1,15 @@
+package dev.fumaz.infuse.provider;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link DelegatingProvider} is a {@link Provider} that decorates another provider, such as a scope wrapper, and
+ * obtains its instances from it.
+ *
+ * @param <T> the type of the class
+ */
+public interface DelegatingProvider<T> extends Provider<T> {
+
+    @NotNull Provider<T> getDelegate();
+
+}
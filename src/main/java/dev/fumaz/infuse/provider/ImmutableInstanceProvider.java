@@ -21,4 +21,13 @@ public class ImmutableInstanceProvider<T> implements Provider<T> {
         return instance;
     }
 
+    /**
+     * Returns the provided instance.
+     *
+     * @return the instance, or {@code null} if this provider provides {@code null}
+     */
+    public @Nullable T getInstance() {
+        return instance;
+    }
+
 }
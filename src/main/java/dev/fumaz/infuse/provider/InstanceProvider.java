@@ -29,6 +29,15 @@ public class InstanceProvider<T> implements Provider<T> {
         return instance;
     }
 
+    /**
+     * Returns the provided instance.
+     *
+     * @return the instance, or {@code null} if this provider provides {@code null}
+     */
+    public @Nullable T getInstance() {
+        return instance;
+    }
+
     public @Nullable T provideWithoutInjecting(Context<?> context) {
         return instance;
     }
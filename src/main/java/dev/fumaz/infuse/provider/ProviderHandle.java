@@ -0,0 +1,24 @@
+package dev.fumaz.infuse.provider;
+
+import dev.fumaz.infuse.injector.Injector;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link ProviderHandle} is a dependency that was resolved once by an {@link Injector} and can then be obtained
+ * repeatedly without further lookups, as returned by {@link Injector#handle(Class)}.
+ * <p>
+ * Handles capture the resolved binding and its scope, so calling {@link #get()} neither searches the injector nor
+ * allocates a {@link dev.fumaz.infuse.context.Context}. Request and session scoped bindings still resolve against the
+ * scope that is active on the calling thread.
+ *
+ * @param <T> the type of the class
+ */
+@FunctionalInterface
+public interface ProviderHandle<T> extends Supplier<T> {
+
+    @Override
+    @Nullable T get();
+
+}
@@ -0,0 +1,211 @@
+package dev.fumaz.infuse.provider;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Base class for providers that create their instance once and then return it forever.
+ * <p>
+ * The created instance is published through a final field, so reading it is a plain field load. Creation is not
+ * performed under a lock: the first caller claims an in-flight initialisation with a compare-and-set and every other
+ * caller parks until it finishes, so no monitor is ever held and virtual threads are not pinned. Before waiting, a
+ * caller checks whether the owner is itself, directly or transitively, waiting for an initialisation the caller owns.
+ * Such a cross-thread dependency cycle is reported as an {@link IllegalStateException} instead of blocking forever.
+ * Unrelated cells never wait for each other.
+ *
+ * @param <T> the type of the class
+ */
+public abstract class SingletonCell<T> {
+
+    /**
+     * The initialisation each blocked thread is currently waiting for, forming the wait-for graph that is searched
+     * for cycles.
+     */
+    private static final ConcurrentMap<Thread, Initialization> WAITING = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<SingletonCell, Initialization> INITIALIZATION =
+            AtomicReferenceFieldUpdater.newUpdater(SingletonCell.class, Initialization.class, "initialization");
+
+    private final @NotNull Class<T> type;
+    // Deliberately not volatile: Initialised#value is final, so a non-null holder is always fully visible. A reader
+    // that still sees null falls back to the slow path, which re-checks after a volatile read.
+    private @Nullable Initialised<T> initialised;
+    private volatile @Nullable Initialization initialization;
+
+    protected SingletonCell(@NotNull Class<T> type) {
+        this.type = Objects.requireNonNull(type, "type");
+    }
+
+    public final @NotNull Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the instance without creating it.
+     *
+     * @return the instance, or {@code null} if it has not been created yet
+     */
+    public @Nullable T getIfInitialised() {
+        Initialised<T> published = initialised;
+        return published == null ? null : published.value;
+    }
+
+    /**
+     * Returns the instance, creating it with the given creator if no other thread is already doing so.
+     *
+     * @param creator  creates the instance; must not return {@code null}
+     * @param onCreate invoked once with the instance if this call created it
+     * @return the instance
+     */
+    protected final T getOrCreate(@NotNull Supplier<T> creator, @Nullable Consumer<? super T> onCreate) {
+        while (true) {
+            // Reading the in-flight initialisation first makes a completed owner's publication visible here.
+            Initialization pending = initialization;
+            Initialised<T> published = initialised;
+
+            if (published != null) {
+                return published.value;
+            }
+
+            if (pending == null) {
+                Initialization claimed = new Initialization(Thread.currentThread(), type);
+
+                if (!INITIALIZATION.compareAndSet(this, null, claimed)) {
+                    continue;
+                }
+
+                // The previous owner may have finished between the reads above and the claim.
+                published = initialised;
+
+                if (published != null) {
+                    initialization = null;
+                    claimed.finish();
+                    return published.value;
+                }
+
+                return create(claimed, creator, onCreate);
+            }
+
+            if (pending.owner == Thread.currentThread()) {
+                throw new IllegalStateException("Dependency cycle detected while initialising singleton "
+                        + type.getName() + ": it was requested again while being created");
+            }
+
+            // If the owner failed, loop and retry the creation, as a lock-based initialisation would.
+            pending.await();
+        }
+    }
+
+    private T create(Initialization pending, Supplier<T> creator, @Nullable Consumer<? super T> onCreate) {
+        T value;
+
+        try {
+            value = creator.get();
+        } catch (RuntimeException | Error e) {
+            initialization = null;
+            pending.finish();
+            throw e;
+        }
+
+        initialised = new Initialised<>(value);
+        // Volatile write: publishes the holder to every thread that next reads the initialisation field.
+        initialization = null;
+        pending.finish();
+
+        if (onCreate != null) {
+            onCreate.accept(value);
+        }
+
+        return value;
+    }
+
+    private static final class Initialised<T> {
+        private final T value;
+
+        private Initialised(T value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Initialization {
+        private final Thread owner;
+        private final Class<?> type;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private Initialization(Thread owner, Class<?> type) {
+            this.owner = owner;
+            this.type = type;
+        }
+
+        private void finish() {
+            done.countDown();
+        }
+
+        private void await() {
+            Thread current = Thread.currentThread();
+
+            // Register before searching: of two threads closing a cycle concurrently, at least one sees the other.
+            WAITING.put(current, this);
+
+            try {
+                detectCycle(current);
+                done.await();
+            } catch (InterruptedException e) {
+                current.interrupt();
+                throw new IllegalStateException("Interrupted while waiting for singleton " + type.getName()
+                        + " to be created by " + owner.getName(), e);
+            } finally {
+                WAITING.remove(current);
+            }
+        }
+
+        private void detectCycle(Thread current) {
+            List<Initialization> chain = new ArrayList<>();
+            Initialization next = this;
+
+            while (next != null && !chain.contains(next)) {
+                chain.add(next);
+
+                if (next.owner == current) {
+                    throw new IllegalStateException(describeCycle(current, chain));
+                }
+
+                next = WAITING.get(next.owner);
+            }
+        }
+
+        private static String describeCycle(Thread current, List<Initialization> chain) {
+            String lineSeparator = System.lineSeparator();
+            StringBuilder builder = new StringBuilder("Dependency cycle detected between threads while initialising "
+                    + "singleton " + chain.get(0).type.getName())
+                    .append(lineSeparator)
+                    .append("Wait path:");
+
+            Thread waiter = current;
+
+            for (Initialization step : chain) {
+                builder.append(lineSeparator)
+                        .append(" - ")
+                        .append(waiter.getName())
+                        .append(" waits for ")
+                        .append(step.type.getName())
+                        .append(" being created by ")
+                        .append(step.owner.getName());
+                waiter = step.owner;
+            }
+
+            return builder.toString();
+        }
+    }
+}
@@ -4,61 +4,62 @@ import dev.fumaz.infuse.context.Context;
 import dev.fumaz.infuse.injector.InfuseInjector;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.function.Supplier;
-
 /**
  * A {@link SingletonProvider} is a {@link Provider} that provides a singleton instance.
  *
  * @param <T> the type of the class
  */
-public class SingletonProvider<T> implements Provider<T> {
+public class SingletonProvider<T> extends SingletonCell<T> implements Provider<T> {
 
-    private final @NotNull Class<T> type;
     private final boolean eager;
-    private volatile T instance;
-    private final Object lock = new Object();
 
     public SingletonProvider(@NotNull Class<T> type, boolean eager) {
-        this.type = type;
+        super(type);
         this.eager = eager;
     }
 
     @Override
     public @NotNull T provide(Context<?> context) {
-        return getOrCreate(() -> context.getInjector().construct(type));
+        T instance = getIfInitialised();
+
+        if (instance != null) {
+            return instance;
+        }
+
+        return getOrCreate(() -> validate(create(context)), null);
     }
 
     public @NotNull T provideWithoutInjecting(Context<?> context) {
-        return getOrCreate(() -> ((InfuseInjector) context.getInjector()).constructWithoutInjecting(type));
+        return getOrCreate(() -> validate(createWithoutInjecting(context)), null);
     }
 
-    public boolean isEager() {
-        return eager;
+    /**
+     * Creates and injects a new instance without memoizing it, for callers that memoize the result themselves.
+     *
+     * @param context the context to create the instance in
+     * @return the new instance
+     */
+    public T create(Context<?> context) {
+        return context.getInjector().construct(getType());
     }
 
-    private @NotNull T getOrCreate(Supplier<T> supplier) {
-        T local = instance;
-
-        if (local != null) {
-            return local;
-        }
-
-        synchronized (lock) {
-            local = instance;
-
-            if (local == null) {
-                local = supplier.get();
-                validate(local);
-                instance = local;
-            }
+    /**
+     * Creates a new instance without injecting or memoizing it, for callers that memoize the result themselves.
+     *
+     * @param context the context to create the instance in
+     * @return the new instance
+     */
+    public T createWithoutInjecting(Context<?> context) {
+        return ((InfuseInjector) context.getInjector()).constructWithoutInjecting(getType());
+    }
 
-            return local;
-        }
+    public boolean isEager() {
+        return eager;
     }
 
-    private void validate(T candidate) {
+    private T validate(T candidate) {
         if (candidate != null) {
-            return;
+            return candidate;
         }
 
         throw new IllegalStateException("Singleton cannot be null");
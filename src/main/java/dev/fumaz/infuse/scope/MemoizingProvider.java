@@ -2,79 +2,98 @@ package dev.fumaz.infuse.scope;
 
 import dev.fumaz.infuse.context.Context;
 import dev.fumaz.infuse.injector.InfuseInjector;
+import dev.fumaz.infuse.provider.DelegatingProvider;
 import dev.fumaz.infuse.provider.InstanceProvider;
 import dev.fumaz.infuse.provider.Provider;
+import dev.fumaz.infuse.provider.SingletonCell;
 import dev.fumaz.infuse.provider.SingletonProvider;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.util.Objects;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Memoizes the result of a delegate provider, behaving like a singleton while deferring instantiation to the delegate.
+ * <p>
+ * A {@link SingletonProvider} delegate is only used to create the instance; this provider is the single memoizing
+ * layer.
  */
-public final class MemoizingProvider<T> implements Provider<T> {
+public final class MemoizingProvider<T> extends SingletonCell<T> implements DelegatingProvider<T> {
 
-    private final Class<T> type;
     private final Provider<T> delegate;
     private final boolean eager;
-    private volatile T instance;
-    private final Object lock = new Object();
+    private final AtomicReference<Consumer<? super T>> creationListener = new AtomicReference<>();
 
     MemoizingProvider(Class<T> type, Provider<T> delegate, boolean eager) {
-        this.type = Objects.requireNonNull(type, "type");
+        super(type);
         this.delegate = Objects.requireNonNull(delegate, "delegate");
         this.eager = eager;
     }
 
     @Override
     public T provide(Context<?> context) {
-        return getOrCreate(() -> delegate.provide(context));
+        T instance = getIfInitialised();
+
+        if (instance != null) {
+            return instance;
+        }
+
+        return getOrCreate(() -> {
+            if (delegate instanceof SingletonProvider) {
+                return validate(((SingletonProvider<T>) delegate).create(context));
+            }
+
+            return validate(delegate.provide(context));
+        }, creationListener.get());
     }
 
     public T provideWithoutInjecting(InfuseInjector injector) {
         Annotation[] annotations = new Annotation[0];
-        Context<?> eagerContext = new Context<>(type, injector, injector, ElementType.FIELD, "eager", annotations);
+        Context<?> eagerContext = new Context<>(getType(), injector, injector, ElementType.FIELD, "eager",
+                annotations);
 
         return getOrCreate(() -> {
             if (delegate instanceof SingletonProvider) {
-                return ((SingletonProvider<T>) delegate).provideWithoutInjecting(eagerContext);
+                return validate(((SingletonProvider<T>) delegate).createWithoutInjecting(eagerContext));
             }
 
             if (delegate instanceof InstanceProvider) {
-                return ((InstanceProvider<T>) delegate).provideWithoutInjecting(eagerContext);
+                return validate(((InstanceProvider<T>) delegate).provideWithoutInjecting(eagerContext));
             }
 
-            return delegate.provide(eagerContext);
-        });
+            return validate(delegate.provide(eagerContext));
+        }, null);
+    }
+
+    @Override
+    public @NotNull Provider<T> getDelegate() {
+        return delegate;
     }
 
     public boolean isEager() {
         return eager;
     }
 
-    private T getOrCreate(@NotNull Supplier<T> supplier) {
-        T local = instance;
+    /**
+     * Registers a listener that is invoked exactly once, with the instance created by {@link #provide(Context)} after
+     * it was fully provided. Instances created through {@link #provideWithoutInjecting(InfuseInjector)} are not
+     * reported. Only the first registered listener is kept.
+     *
+     * @param listener the listener to invoke
+     */
+    public void onCreation(@NotNull Consumer<? super T> listener) {
+        creationListener.compareAndSet(null, Objects.requireNonNull(listener, "listener"));
+    }
 
-        if (local != null) {
-            return local;
+    private T validate(@Nullable T candidate) {
+        if (candidate == null) {
+            throw new IllegalStateException("Scoped singleton provider produced null for " + getType().getName());
         }
 
-        synchronized (lock) {
-            local = instance;
-
-            if (local == null) {
-                local = supplier.get();
-                if (local == null) {
-                    throw new IllegalStateException("Scoped singleton provider produced null for " + type.getName());
-                }
-
-                instance = local;
-            }
-
-            return local;
-        }
+        return candidate;
     }
 }
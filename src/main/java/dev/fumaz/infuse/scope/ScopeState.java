@@ -3,23 +3,28 @@ package dev.fumaz.infuse.scope;
 import dev.fumaz.infuse.bind.BindingKey;
 
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
  * Holds scoped instances and their destruction callbacks for the lifetime of a scope activation.
+ * <p>
+ * Instances are stored in an immutable table keyed by {@link BindingKey}, so reads never lock. Creation is
+ * serialized per scope activation, which also lets a scoped instance depend on another instance of the same scope. The
+ * creation lock is a {@link ReentrantLock} rather than a monitor, so creating an instance on a virtual thread does not
+ * pin its carrier.
  */
 final class ScopeState {
 
-    private final ConcurrentMap<BindingKey, Object> instances = new ConcurrentHashMap<>();
+    private final ReentrantLock creationLock = new ReentrantLock();
     private final ConcurrentLinkedDeque<Runnable> destroyCallbacks = new ConcurrentLinkedDeque<>();
     private final AtomicInteger references = new AtomicInteger();
     private final AtomicBoolean destroyed = new AtomicBoolean(false);
+    private volatile Slots instances = Slots.EMPTY;
 
     <T> T getOrCompute(BindingKey key, Supplier<T> supplier, Consumer<T> onCreate) {
         Objects.requireNonNull(key, "key");
@@ -27,30 +32,40 @@ final class ScopeState {
         Objects.requireNonNull(onCreate, "onCreate");
 
         Object cached = instances.get(key);
+
         if (cached != null) {
             @SuppressWarnings("unchecked")
             T typed = (T) cached;
             return typed;
         }
 
-        Creation<T> creation = new Creation<>();
-        Object resolved = instances.computeIfAbsent(key, k -> {
-            T instance = supplier.get();
-            creation.value = instance;
+        creationLock.lock();
 
-            if (instance != null) {
-                destroyCallbacks.push(() -> onCreate.accept(instance));
-            }
+        try {
+            cached = instances.get(key);
+
+            if (cached == null) {
+                T instance = supplier.get();
+
+                if (instance == null) {
+                    return null;
+                }
 
-            return instance;
-        });
+                // The supplier may have re-entered this scope and created the same key already; keep that one.
+                cached = instances.get(key);
 
-        if (creation.value != null) {
-            return creation.value;
+                if (cached == null) {
+                    instances = instances.with(key, instance);
+                    destroyCallbacks.push(() -> onCreate.accept(instance));
+                    return instance;
+                }
+            }
+        } finally {
+            creationLock.unlock();
         }
 
         @SuppressWarnings("unchecked")
-        T typed = (T) resolved;
+        T typed = (T) cached;
         return typed;
     }
 
@@ -75,10 +90,78 @@ final class ScopeState {
             }
         }
 
-        instances.clear();
+        creationLock.lock();
+
+        try {
+            instances = Slots.EMPTY;
+        } finally {
+            creationLock.unlock();
+        }
     }
 
-    private static final class Creation<T> {
-        private T value;
+    /**
+     * Immutable open-addressing table from binding keys to instances. Key ids are dense, so they are used directly as
+     * hash codes; the keys themselves are held, so an id is never mistaken for that of a later key.
+     */
+    private static final class Slots {
+        private static final Slots EMPTY = new Slots(new BindingKey[8], new Object[8], 0);
+
+        private final BindingKey[] keys;
+        private final Object[] values;
+        private final int size;
+
+        private Slots(BindingKey[] keys, Object[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        private Object get(BindingKey key) {
+            int mask = keys.length - 1;
+            int index = key.getId() & mask;
+            BindingKey stored;
+
+            while ((stored = keys[index]) != null) {
+                if (stored == key) {
+                    return values[index];
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            return null;
+        }
+
+        private Slots with(BindingKey key, Object value) {
+            int capacity = keys.length;
+
+            if ((size + 1) * 2 > capacity) {
+                capacity *= 2;
+            }
+
+            BindingKey[] newKeys = new BindingKey[capacity];
+            Object[] newValues = new Object[capacity];
+
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    insert(newKeys, newValues, keys[i], values[i]);
+                }
+            }
+
+            insert(newKeys, newValues, key, value);
+            return new Slots(newKeys, newValues, size + 1);
+        }
+
+        private static void insert(BindingKey[] keys, Object[] values, BindingKey key, Object value) {
+            int mask = keys.length - 1;
+            int index = key.getId() & mask;
+
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = key;
+            values[index] = value;
+        }
     }
 }
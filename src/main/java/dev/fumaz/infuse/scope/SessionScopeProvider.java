@@ -3,14 +3,16 @@ package dev.fumaz.infuse.scope;
 import dev.fumaz.infuse.bind.BindingKey;
 import dev.fumaz.infuse.context.Context;
 import dev.fumaz.infuse.injector.Injector;
+import dev.fumaz.infuse.provider.DelegatingProvider;
 import dev.fumaz.infuse.provider.Provider;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.Objects;
 
 /**
  * Provider wrapper that memoises instances for the lifetime of an active session scope.
  */
-final class SessionScopeProvider<T> implements Provider<T> {
+final class SessionScopeProvider<T> implements DelegatingProvider<T> {
 
     private final BindingKey key;
     private final Provider<T> delegate;
@@ -29,4 +31,9 @@ final class SessionScopeProvider<T> implements Provider<T> {
                 () -> delegate.provide(context),
                 instance -> ScopeSupport.invokePreDestroy(injector, instance));
     }
+
+    @Override
+    public @NotNull Provider<T> getDelegate() {
+        return delegate;
+    }
 }
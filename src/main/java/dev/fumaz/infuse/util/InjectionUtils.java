@@ -8,6 +8,13 @@ import java.lang.annotation.Annotation;
 
 public final class InjectionUtils {
 
+    private static final ClassValue<Boolean> QUALIFIER_ANNOTATIONS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(Qualifier.class);
+        }
+    };
+
     private InjectionUtils() {
     }
 
@@ -33,9 +40,7 @@ public final class InjectionUtils {
         BindingQualifier qualifier = BindingQualifier.none();
 
         for (Annotation annotation : annotations) {
-            Class<? extends Annotation> type = annotation.annotationType();
-
-            if (type.isAnnotationPresent(Qualifier.class)) {
+            if (QUALIFIER_ANNOTATIONS.get(annotation.annotationType())) {
                 if (!qualifier.isDefault()) {
                     throw new IllegalStateException("Multiple qualifier annotations found on injection point");
                 }
@@ -0,0 +1,181 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.PreDestroy;
+import dev.fumaz.infuse.bind.Key;
+import dev.fumaz.infuse.exception.ConfigurationException;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChildTemplateTest {
+
+    private static final Key<String> JOB_ID = Key.named(String.class, "jobId");
+
+    interface Job {
+    }
+
+    static class SimpleJob implements Job {
+    }
+
+    static class Cache {
+        static final AtomicInteger destroyed = new AtomicInteger();
+
+        @PreDestroy
+        void destroy() {
+            destroyed.incrementAndGet();
+        }
+    }
+
+    static class Handler {
+        @Inject
+        Job job;
+
+        @Inject
+        @dev.fumaz.infuse.annotation.Named("jobId")
+        String jobId;
+
+        @Inject
+        Cache cache;
+
+        @Inject
+        Injector injector;
+    }
+
+    static class InjectorAware {
+        @Inject
+        Injector injector;
+
+        @Inject
+        InfuseInjector infuseInjector;
+    }
+
+    private static ChildTemplate createTemplate(Injector parent) {
+        return parent.childTemplate()
+                .instance(Job.class)
+                .instance(JOB_ID)
+                .modules(new InfuseModule() {
+                    @Override
+                    public void configure() {
+                        bind(Handler.class).to(Handler.class);
+                    }
+                })
+                .build();
+    }
+
+    @Test
+    void stampedChildrenBindTheirOwnInstancesAndShareTheRest() {
+        Injector parent = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Cache.class).toSingleton();
+            }
+        });
+        ChildTemplate template = createTemplate(parent);
+
+        Job firstJob = new SimpleJob();
+        Job secondJob = new SimpleJob();
+        Injector first = template.newChild().instance(Job.class, firstJob).instance(JOB_ID, "first").create();
+        Injector second = template.newChild().instance(Job.class, secondJob).instance(JOB_ID, "second").create();
+
+        Handler firstHandler = first.provide(Handler.class, this);
+        Handler secondHandler = second.provide(Handler.class, this);
+
+        assertSame(firstJob, firstHandler.job);
+        assertEquals("first", firstHandler.jobId);
+        assertSame(first, firstHandler.injector);
+        assertSame(secondJob, secondHandler.job);
+        assertEquals("second", secondHandler.jobId);
+        assertSame(second, secondHandler.injector);
+        assertSame(firstHandler.cache, secondHandler.cache);
+        assertSame(template.getInjector(), first.getParent());
+    }
+
+    @Test
+    void everyDeclaredInstanceMustBeGiven() {
+        ChildTemplate template = createTemplate(Injector.create());
+
+        assertThrows(IllegalArgumentException.class, () -> template.newChild().instance(Handler.class, new Handler()));
+        assertThrows(IllegalStateException.class, () -> template.newChild().instance(Job.class, new SimpleJob()).create());
+    }
+
+    @Test
+    void destroyingAStampedChildLeavesTheParentAlone() {
+        Injector parent = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Cache.class).toSingleton();
+            }
+        });
+        Injector child = createTemplate(parent).newChild()
+                .instance(Job.class, new SimpleJob())
+                .instance(JOB_ID, "job")
+                .create();
+
+        child.provide(Handler.class, this);
+        Cache.destroyed.set(0);
+        child.destroy();
+
+        assertEquals(0, Cache.destroyed.get());
+    }
+
+    @Test
+    void validatedTemplatesAcceptDeclaredInstances() {
+        InjectorOptions production = InjectorOptions.builder().stage(InjectorOptions.Stage.PRODUCTION).build();
+        ChildTemplate template = createTemplate(Injector.create(production));
+
+        Injector child = template.newChild().instance(Job.class, new SimpleJob()).instance(JOB_ID, "job").create();
+
+        assertNotNull(child.provide(Handler.class, this).job);
+        assertThrows(ConfigurationException.class, () -> Injector.create(production).childTemplate()
+                .modules(new InfuseModule() {
+                    @Override
+                    public void configure() {
+                        bind(Handler.class).to(Handler.class);
+                    }
+                })
+                .build());
+    }
+
+    @Test
+    void stampedChildrenIgnoreWhatTheTemplateResolvedItself() {
+        ChildTemplate template = createTemplate(Injector.create());
+        Injector before = template.newChild().instance(Job.class, new SimpleJob()).instance(JOB_ID, "before").create();
+
+        assertSame(before, before.provide(InjectorAware.class, this).injector);
+
+        InjectorAware resolvedByTemplate = template.getInjector().provide(InjectorAware.class, this);
+        assertSame(template.getInjector(), resolvedByTemplate.injector);
+        assertSame(template.getInjector(), resolvedByTemplate.infuseInjector);
+
+        Injector after = template.newChild().instance(Job.class, new SimpleJob()).instance(JOB_ID, "after").create();
+        InjectorAware aware = after.provide(InjectorAware.class, this);
+
+        assertSame(after, aware.injector);
+        assertSame(after, aware.infuseInjector);
+        assertSame(before, before.provide(InjectorAware.class, this).infuseInjector);
+    }
+
+    @Test
+    void aFailedTemplateProvisionDoesNotBreakLaterChildren() {
+        ChildTemplate template = createTemplate(Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Cache.class).toSingleton();
+            }
+        }));
+
+        assertThrows(RuntimeException.class, () -> template.getInjector().provide(Handler.class, this));
+
+        Job job = new SimpleJob();
+        Injector child = template.newChild().instance(Job.class, job).instance(JOB_ID, "job").create();
+        Handler handler = child.provide(Handler.class, this);
+
+        assertSame(job, handler.job);
+        assertEquals("job", handler.jobId);
+        assertSame(child, handler.injector);
+    }
+}
@@ -0,0 +1,165 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentSingletonTest {
+
+    static CountDownLatch bothStarted;
+    static CountDownLatch bothConstructing;
+    static AtomicInteger sharedConstructions;
+
+    static class First {
+        @Inject
+        private Second second;
+
+        First() throws InterruptedException {
+            bothStarted.countDown();
+            bothStarted.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    static class Second {
+        @Inject
+        private First first;
+
+        Second() throws InterruptedException {
+            bothStarted.countDown();
+            bothStarted.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    static class Left {
+        final boolean overlapped;
+
+        Left() throws InterruptedException {
+            bothConstructing.countDown();
+            overlapped = bothConstructing.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    static class Right {
+        final boolean overlapped;
+
+        Right() throws InterruptedException {
+            bothConstructing.countDown();
+            overlapped = bothConstructing.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    static class Shared {
+        Shared() throws InterruptedException {
+            sharedConstructions.incrementAndGet();
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void crossThreadCycleIsReportedInsteadOfDeadlocking() throws Exception {
+        bothStarted = new CountDownLatch(2);
+        Injector injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(First.class).toSingleton();
+                bind(Second.class).toSingleton();
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<First> first = executor.submit(() -> injector.provide(First.class, this));
+            Future<Second> second = executor.submit(() -> injector.provide(Second.class, this));
+
+            assertCycleReported(first);
+            assertCycleReported(second);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void unrelatedSingletonsInitialiseInParallel() throws Exception {
+        bothConstructing = new CountDownLatch(2);
+        Injector injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Left.class).toSingleton();
+                bind(Right.class).toSingleton();
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Left> left = executor.submit(() -> injector.provide(Left.class, this));
+            Future<Right> right = executor.submit(() -> injector.provide(Right.class, this));
+
+            assertTrue(left.get(10, TimeUnit.SECONDS).overlapped);
+            assertTrue(right.get(10, TimeUnit.SECONDS).overlapped);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentRequestsShareOneInstance() throws Exception {
+        sharedConstructions = new AtomicInteger();
+        Injector injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Shared.class).toSingleton();
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<Shared>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> injector.provide(Shared.class, this)));
+            }
+
+            Shared expected = futures.get(0).get(10, TimeUnit.SECONDS);
+
+            for (Future<Shared> future : futures) {
+                assertSame(expected, future.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, sharedConstructions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertCycleReported(Future<?> future) throws Exception {
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        Throwable cause = failure.getCause();
+
+        while (cause != null) {
+            if (cause instanceof IllegalStateException
+                    && cause.getMessage() != null
+                    && cause.getMessage().contains("Dependency cycle detected")) {
+                return;
+            }
+
+            cause = cause.getCause();
+        }
+
+        fail("Expected a dependency cycle to be reported, got " + failure.getCause());
+    }
+}
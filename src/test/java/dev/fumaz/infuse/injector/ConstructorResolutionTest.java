@@ -1,11 +1,16 @@
 package dev.fumaz.infuse.injector;
 
 import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.exception.ProvisionException;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ConstructorResolutionTest {
 
@@ -53,6 +58,12 @@ class ConstructorResolutionTest {
         }
     }
 
+    static class FailingConstructor {
+        FailingConstructor() {
+            throw new IllegalStateException("constructor failed");
+        }
+    }
+
     @Test
     void shouldConstructTypeWithSingleConstructorDependency() {
         Injector injector = Injector.create();
@@ -74,4 +85,15 @@ class ConstructorResolutionTest {
         assertSame(account, instance.getAccount());
         assertNull(instance.getParent());
     }
+
+    @Test
+    void shouldWrapWhatTheConstructorThrowsInAnInvocationTargetException() {
+        Injector injector = Injector.create();
+
+        ProvisionException failure = assertThrows(ProvisionException.class,
+                () -> injector.construct(FailingConstructor.class));
+
+        InvocationTargetException wrapped = assertInstanceOf(InvocationTargetException.class, failure.getCause());
+        assertInstanceOf(IllegalStateException.class, wrapped.getTargetException());
+    }
 }
@@ -0,0 +1,131 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.exception.ProvisionException;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticsSinkTest {
+
+    static class Broken {
+        Broken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    static class Middle {
+        @Inject
+        Broken broken;
+    }
+
+    static class Top {
+        final Middle middle;
+
+        @Inject
+        Top(Middle middle) {
+            this.middle = middle;
+        }
+    }
+
+    static class Holder {
+        @Inject
+        Top top;
+    }
+
+    @Test
+    void reportsEachFailedProvisionOnce() {
+        List<Throwable> reports = new ArrayList<>();
+        Injector injector = Injector.create(InjectorOptions.builder().diagnostics(reports::add).build(),
+                new InfuseModule() {
+                    @Override
+                    public void configure() {
+                        bind(Top.class).toSingleton();
+                    }
+                });
+
+        ProvisionException constructed = assertThrows(ProvisionException.class, () -> injector.construct(Top.class));
+        assertEquals(1, reports.size());
+        assertSame(constructed, reports.get(0));
+
+        ProvisionException provided = assertThrows(ProvisionException.class, () -> injector.provide(Top.class, this));
+        assertEquals(2, reports.size());
+        assertSame(provided, reports.get(1));
+
+        ProvisionException injected = assertThrows(ProvisionException.class, () -> injector.inject(new Holder()));
+        assertEquals(3, reports.size());
+        assertSame(injected, reports.get(2));
+        assertEquals(3, injected.getResolutionPath().size());
+    }
+
+    static class Chicken {
+        Chicken(Egg egg) {
+        }
+    }
+
+    static class Egg {
+        Egg(Chicken chicken) {
+        }
+    }
+
+    @Test
+    void reportsCyclesMetByTheOutermostProvision() {
+        List<Throwable> reports = new ArrayList<>();
+        Injector injector = Injector.create(InjectorOptions.builder().diagnostics(reports::add).build(),
+                new InfuseModule() {
+                    @Override
+                    public void configure() {
+                        bind(Chicken.class).toProvider(Egg.class, Chicken::new);
+                        bind(Egg.class).toProvider(Chicken.class, Egg::new);
+                    }
+                });
+
+        IllegalStateException cycle = assertThrows(IllegalStateException.class,
+                () -> injector.provide(Chicken.class, this));
+
+        assertTrue(cycle.getMessage().startsWith("Dependency cycle detected"), cycle.getMessage());
+        assertEquals(1, reports.size());
+        assertSame(cycle, reports.get(0));
+    }
+
+    @Test
+    void standardErrorSinkIsRateLimited() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DiagnosticsSink sink = new RateLimitedDiagnosticsSink(new PrintStream(output, true), 2, 60_000L);
+        Injector injector = Injector.create(InjectorOptions.builder().diagnostics(sink).build());
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ProvisionException.class, () -> injector.construct(Middle.class));
+        }
+
+        String printed = output.toString();
+
+        assertEquals(2, printed.split("Failed to construct", -1).length - 1, printed);
+        assertTrue(printed.contains("Caused by: java.lang.IllegalStateException: broken"), printed);
+        assertFalse(printed.contains("\tat "), "stack traces should not be printed");
+    }
+
+    @Test
+    void rateLimitStartsOverInEachWindow() throws InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DiagnosticsSink sink = new RateLimitedDiagnosticsSink(new PrintStream(output, true), 1, 50L);
+        Injector injector = Injector.create(InjectorOptions.builder().diagnostics(sink).build());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ProvisionException.class, () -> injector.construct(Middle.class));
+            assertThrows(ProvisionException.class, () -> injector.construct(Middle.class));
+            Thread.sleep(120L);
+        }
+
+        String printed = output.toString();
+
+        assertEquals(4, printed.split("Failed to construct", -1).length - 1, printed);
+        assertEquals(3, printed.split("1 provisioning failures were not reported", -1).length - 1, printed);
+    }
+}
@@ -0,0 +1,96 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.Named;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphReuseTest {
+
+    interface Store {
+    }
+
+    static class MemoryStore implements Store {
+    }
+
+    static class DiskStore implements Store {
+    }
+
+    static class Repository {
+        @Inject
+        Store store;
+    }
+
+    static class Service {
+        @Inject
+        Store store;
+
+        @Inject
+        Repository repository;
+    }
+
+    static class Archive {
+        @Inject
+        @Named("disk")
+        Store disk;
+
+        @Inject
+        Repository repository;
+    }
+
+    static class Level {
+        @Inject
+        Store store;
+    }
+
+    static class Deep {
+        @Inject
+        Store store;
+
+        @Inject
+        Level first;
+
+        @Inject
+        Level second;
+    }
+
+    private static Injector createInjector() {
+        return Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Store.class).to(MemoryStore.class);
+                bind(Store.class).named("disk").to(DiskStore.class);
+            }
+        });
+    }
+
+    @Test
+    void instancesResolvedWithinAGraphAreReusedByNestedObjects() {
+        Service service = createInjector().construct(Service.class);
+
+        assertInstanceOf(MemoryStore.class, service.store);
+        assertSame(service.store, service.repository.store);
+    }
+
+    @Test
+    void reuseIsScopedToTheObjectGraph() {
+        Injector injector = createInjector();
+
+        Deep deep = injector.construct(Deep.class);
+        Deep other = injector.construct(Deep.class);
+
+        assertSame(deep.store, deep.first.store);
+        assertSame(deep.store, deep.second.store);
+        assertNotSame(deep.store, other.store);
+    }
+
+    @Test
+    void qualifiedInstancesAreOnlyReusedForTheSameQualifier() {
+        Archive archive = createInjector().construct(Archive.class);
+
+        assertInstanceOf(DiskStore.class, archive.disk);
+        assertInstanceOf(MemoryStore.class, archive.repository.store);
+    }
+}
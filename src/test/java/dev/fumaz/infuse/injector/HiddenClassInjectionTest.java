@@ -0,0 +1,180 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.PostConstruct;
+import dev.fumaz.infuse.annotation.PostInject;
+import dev.fumaz.infuse.annotation.PreDestroy;
+import dev.fumaz.infuse.exception.ProvisionException;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs injection through hidden class member injectors. Skipped on runtimes without hidden classes, where the option
+ * falls back to reflection.
+ */
+class HiddenClassInjectionTest {
+
+    private static final InjectorOptions HIDDEN_CLASSES = InjectorOptions.builder()
+            .memberInjection(InjectorOptions.MemberInjection.HIDDEN_CLASSES)
+            .build();
+
+    static List<String> events;
+
+    static class Store {
+    }
+
+    interface Missing {
+    }
+
+    static class Base {
+        @Inject
+        private Store inherited;
+    }
+
+    static class Service extends Base {
+        @Inject
+        private Store store;
+
+        @Inject
+        Injector injector;
+
+        @Inject(optional = true)
+        private Missing missing = new Missing() {
+        };
+
+        @Inject(optional = true)
+        private int count = 7;
+
+        private String configured;
+
+        @Inject
+        private void configure(Store store) {
+            configured = "configured";
+        }
+
+        @PostConstruct(priority = 2)
+        private long second() {
+            events.add("second");
+            return 0L;
+        }
+
+        @PostConstruct(priority = 1)
+        private void first() {
+            events.add("first");
+        }
+
+        @PostInject
+        private void injected() {
+            events.add("injected");
+        }
+
+        @PreDestroy
+        private void destroyed() {
+            events.add("destroyed");
+        }
+    }
+
+    static class Failing {
+        @PostConstruct
+        private void fail() {
+            throw new IllegalStateException("failing callback");
+        }
+    }
+
+    private static Injector createInjector() {
+        return Injector.create(HIDDEN_CLASSES, new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Store.class).toSingleton();
+                bind(Service.class).toSingleton();
+            }
+        });
+    }
+
+    @Test
+    void hiddenClassesAreDefinedForDeclaredMembers() throws Exception {
+        assumeTrue(HiddenClassMemberInjector.isSupported());
+
+        Field[] fields = {
+                Service.class.getDeclaredField("store"),
+                Base.class.getDeclaredField("inherited"),
+                Service.class.getDeclaredField("count")
+        };
+        Method[] callbacks = {
+                Service.class.getDeclaredMethod("first"),
+                Service.class.getDeclaredMethod("configure", Store.class),
+                Service.class.getDeclaredMethod("second")
+        };
+        HiddenClassMemberInjector members = HiddenClassMemberInjector.generate(Service.class, fields, callbacks);
+
+        assertNotNull(members);
+        assertTrue(members.assigns(0));
+        assertFalse(members.assigns(1), "inherited fields are not reachable from the hidden class");
+        assertFalse(members.assigns(2), "primitive fields are left to the usual path");
+
+        Store store = new Store();
+        Service service = new Service();
+        events = new ArrayList<>();
+
+        assertTrue(members.assign(service, new Object[]{store, null, null}));
+        assertTrue(members.call(service, 0));
+        assertFalse(members.call(service, 1), "callbacks with parameters are left to the usual path");
+        assertTrue(members.call(service, 2));
+        assertSame(store, service.store);
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void injectsAndRunsCallbacksInPriorityOrder() {
+        assumeTrue(HiddenClassMemberInjector.isSupported());
+        events = new ArrayList<>();
+
+        Injector injector = createInjector();
+        Service service = injector.provide(Service.class, this);
+
+        assertNotNull(service.store);
+        assertSame(service.store, ((Base) service).inherited);
+        assertSame(injector, service.injector);
+        assertNull(service.missing);
+        assertEquals(7, service.count);
+        assertEquals("configured", service.configured);
+        assertEquals(3, events.size());
+        assertEquals("first", events.get(0));
+        assertEquals("second", events.get(1));
+        assertEquals("injected", events.get(2));
+
+        Service injected = new Service();
+        injector.inject(injected);
+        assertSame(service.store, injected.store);
+
+        injector.destroy();
+        assertTrue(events.contains("destroyed"));
+    }
+
+    @Test
+    void callbackFailuresReportTheFailingMethod() {
+        assumeTrue(HiddenClassMemberInjector.isSupported());
+
+        ProvisionException exception = assertThrows(ProvisionException.class,
+                () -> createInjector().construct(Failing.class));
+
+        assertTrue(exception.getMessage().startsWith("Failed to inject method fail in "
+                + Failing.class.getName()), exception.getMessage());
+
+        Throwable root = exception;
+
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+
+        assertEquals("failing callback", root.getMessage());
+    }
+}
@@ -0,0 +1,141 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.PreDestroy;
+import dev.fumaz.infuse.annotation.Scope;
+import dev.fumaz.infuse.annotation.Singleton;
+import dev.fumaz.infuse.scope.ScopeHandle;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JustInTimeBindingTest {
+
+    @Target(ElementType.TYPE)
+    @Retention(RetentionPolicy.RUNTIME)
+    @Scope("request")
+    @interface PerRequest {
+    }
+
+    @Singleton(lazy = true)
+    static class Registry {
+        static final List<Registry> destroyed = new CopyOnWriteArrayList<>();
+
+        @PreDestroy
+        void destroy() {
+            destroyed.add(this);
+        }
+    }
+
+    @PerRequest
+    static class RequestState {
+    }
+
+    static class Helper {
+    }
+
+    static class Consumer {
+        @Inject
+        Registry registry;
+
+        @Inject
+        Helper helper;
+    }
+
+    static class RequestConsumer {
+        @Inject
+        RequestState state;
+    }
+
+    @Test
+    void unboundSingletonsAreCreatedOnce() {
+        Injector injector = Injector.create();
+
+        Consumer first = injector.construct(Consumer.class);
+        Consumer second = injector.construct(Consumer.class);
+
+        assertSame(first.registry, second.registry);
+        assertSame(first.registry, injector.provide(Registry.class, this));
+        assertNotSame(first.helper, second.helper, "types without a scope are still constructed per request");
+    }
+
+    @Test
+    void unboundCustomScopesAreHonoured() {
+        Injector injector = Injector.create();
+        RequestState state;
+
+        try (ScopeHandle ignored = injector.openRequest()) {
+            state = injector.construct(RequestConsumer.class).state;
+
+            assertSame(state, injector.construct(RequestConsumer.class).state);
+        }
+
+        try (ScopeHandle ignored = injector.openRequest()) {
+            assertNotSame(state, injector.construct(RequestConsumer.class).state);
+        }
+    }
+
+    @Test
+    void childInjectorsOwnTheirJustInTimeSingletons() {
+        Injector parent = Injector.create();
+        Injector child = parent.child();
+
+        Registry registry = child.provide(Registry.class, this);
+
+        assertNotSame(registry, parent.provide(Registry.class, this));
+
+        Registry.destroyed.clear();
+        child.destroy();
+
+        assertTrue(Registry.destroyed.contains(registry), "the child's singleton should be destroyed with the child");
+    }
+
+    @Test
+    void childInjectorsReuseTheJustInTimeSingletonsOfTheirAncestors() {
+        Injector parent = Injector.create();
+        Injector child = parent.child().child();
+
+        Registry registry = parent.provide(Registry.class, this);
+
+        assertSame(registry, child.provide(Registry.class, this));
+        assertSame(registry, child.construct(Consumer.class).registry);
+
+        Registry.destroyed.clear();
+        child.destroy();
+
+        assertEquals(1, Registry.destroyed.stream().filter(destroyed -> destroyed == registry).count(),
+                "the singleton should only be destroyed by the injector that created it");
+    }
+
+    @Test
+    void destroyedChildrenAreCollectableOnceTheyCreatedJustInTimeSingletons() throws InterruptedException {
+        Injector parent = Injector.create();
+
+        WeakReference<Injector> child = provideFromDestroyedChild(parent);
+
+        for (int attempt = 0; attempt < 50 && child.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(child.get(), "the destroyed child should be collectable");
+        assertNotNull(parent.provide(Registry.class, this));
+    }
+
+    private WeakReference<Injector> provideFromDestroyedChild(Injector parent) {
+        Injector child = parent.child();
+
+        assertNotNull(child.provide(Registry.class, this));
+        child.destroy();
+
+        return new WeakReference<>(child);
+    }
+}
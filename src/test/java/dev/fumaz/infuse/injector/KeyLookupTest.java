@@ -0,0 +1,108 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Named;
+import dev.fumaz.infuse.annotation.Qualifier;
+import dev.fumaz.infuse.bind.BindingQualifier;
+import dev.fumaz.infuse.bind.Key;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyLookupTest {
+
+    interface Greeter {
+    }
+
+    static class EnglishGreeter implements Greeter {
+    }
+
+    static class SpanishGreeter implements Greeter {
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Region {
+        String value() default "eu";
+
+        int zone() default 1;
+    }
+
+    @Named("shared")
+    @Region
+    static class Annotated {
+    }
+
+    private static final Key<Greeter> ENGLISH = Key.named(Greeter.class, "en");
+    private static final Key<Greeter> SPANISH = Key.named(Greeter.class, "es");
+
+    private static InfuseInjector createInjector() {
+        return (InfuseInjector) Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Greeter.class).named("en").toSingleton(EnglishGreeter.class);
+                bind(Greeter.class).named("es").to(SpanishGreeter.class);
+            }
+        });
+    }
+
+    @Test
+    void keysForTheSameDependencyAreEqual() {
+        Key<Greeter> english = Key.of(Greeter.class, BindingQualifier.named("en"));
+
+        assertEquals(ENGLISH, english);
+        assertEquals(ENGLISH.hashCode(), english.hashCode());
+        assertEquals(ENGLISH.getId(), english.getId());
+        assertNotEquals(ENGLISH, SPANISH);
+        assertNotEquals(ENGLISH.getId(), SPANISH.getId());
+    }
+
+    @Test
+    void provideResolvesQualifiedBindings() {
+        InfuseInjector injector = createInjector();
+
+        Greeter english = injector.provide(ENGLISH, this);
+
+        assertInstanceOf(EnglishGreeter.class, english);
+        assertSame(english, injector.provide(ENGLISH, this));
+        assertInstanceOf(SpanishGreeter.class, injector.provide(SPANISH, this));
+        assertInstanceOf(SpanishGreeter.class, injector.handle(SPANISH).get());
+    }
+
+    @Test
+    void bindingLookupsAcceptKeys() {
+        InfuseInjector injector = createInjector();
+
+        assertNotNull(injector.getProvider(ENGLISH));
+        assertNotNull(injector.getBindingOrNull(SPANISH));
+        assertNull(injector.getBindingOrNull(Key.named(Greeter.class, "fr")));
+        assertNull(injector.getBindingOrNull(Greeter.class));
+    }
+
+    @Test
+    void qualifiersNamedAtRuntimeAreNotRetained() throws InterruptedException {
+        BindingQualifier held = BindingQualifier.named("held");
+        WeakReference<BindingQualifier> dropped = new WeakReference<>(BindingQualifier.named("dropped"));
+
+        for (int attempt = 0; attempt < 50 && dropped.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(dropped.get(), "an unreferenced qualifier should be collectable");
+        assertSame(held, BindingQualifier.named("held"));
+    }
+
+    @Test
+    void qualifiersReadTheSameHoweverTheyWereFirstCreated() {
+        BindingQualifier fromAnnotation = BindingQualifier.from(Annotated.class.getAnnotation(Region.class));
+
+        assertSame(BindingQualifier.of(Region.class), fromAnnotation);
+        assertEquals("@Region(value=\"eu\", zone=1)", fromAnnotation.toString());
+        assertEquals("@Named(\"shared\")", BindingQualifier.from(Annotated.class.getAnnotation(Named.class)).toString());
+    }
+}
@@ -0,0 +1,248 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.PostConstruct;
+import dev.fumaz.infuse.annotation.Qualifier;
+import dev.fumaz.infuse.bind.Key;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginUnloadTest {
+
+    public static class Host {
+    }
+
+    public static class Plugin {
+        public final Host host;
+
+        @Inject
+        public Helper helper;
+
+        public boolean started;
+
+        @Inject
+        public Plugin(Host host) {
+            this.host = host;
+        }
+
+        @PostConstruct
+        public void start() {
+            started = true;
+        }
+    }
+
+    public static class Helper {
+        @Inject
+        public Host host;
+    }
+
+    private static final Key<String> JOB_ID = Key.named(String.class, "jobId");
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface PluginName {
+    }
+
+    public static class PluginWithQualifier {
+        @Inject
+        @PluginName
+        public String name;
+    }
+
+    /**
+     * Loads the plugin classes itself instead of delegating, the way a plugin system loads each plugin from its own
+     * jar, so the plugin classes can only be collected together with the loader.
+     */
+    private static final class PluginClassLoader extends ClassLoader {
+        private PluginClassLoader() {
+            super(PluginUnloadTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(Plugin.class.getName()) && !name.equals(Helper.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+
+                if (loaded == null) {
+                    byte[] bytes = read(name.replace('.', '/') + ".class");
+                    loaded = defineClass(name, bytes, 0, bytes.length);
+                }
+
+                return loaded;
+            }
+        }
+
+        private byte[] read(String resource) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new ClassNotFoundException(resource);
+                }
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    out.write(buffer, 0, read);
+                }
+
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(resource, e);
+            }
+        }
+    }
+
+    @Test
+    void pluginClassLoaderIsCollectableOnceItsChildInjectorIsDestroyed() throws Exception {
+        Injector parent = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Host.class).toSingleton();
+            }
+        });
+
+        WeakReference<ClassLoader> loader = runPlugin(parent);
+
+        for (int attempt = 0; attempt < 50 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(loader.get(), "the plugin class loader should be collectable");
+    }
+
+    @Test
+    void pluginQualifiersDoNotKeepThePluginClassLoaderAlive() throws Exception {
+        Injector parent = Injector.create();
+
+        WeakReference<ClassLoader> loader = runQualifiedPlugin(parent);
+
+        for (int attempt = 0; attempt < 50 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(loader.get(), "the plugin class loader should be collectable");
+    }
+
+    @Test
+    void pluginClassLoaderIsCollectableWhileTheRootThatConstructedItLives() throws Exception {
+        Injector root = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Host.class).toSingleton();
+            }
+        });
+
+        WeakReference<ClassLoader> loader = runPluginIn(root);
+
+        for (int attempt = 0; attempt < 50 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(loader.get(), "the plugin class loader should be collectable");
+        assertNotNull(root.provide(Host.class, this));
+    }
+
+    @Test
+    void pluginClassLoaderIsCollectableWhileTheTemplateOfItsChildLives() throws Exception {
+        Injector parent = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Host.class).toSingleton();
+            }
+        });
+        ChildTemplate template = parent.childTemplate()
+                .instance(JOB_ID)
+                .build();
+
+        WeakReference<ClassLoader> loader = runPluginIn(template.newChild().instance(JOB_ID, "job").create());
+
+        for (int attempt = 0; attempt < 50 && loader.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(loader.get(), "the plugin class loader should be collectable");
+        assertNotNull(template.newChild().instance(JOB_ID, "next").create().construct(Helper.class));
+    }
+
+    private static WeakReference<ClassLoader> runPlugin(Injector parent) throws Exception {
+        PluginClassLoader loader = new PluginClassLoader();
+        Class<?> pluginType = loader.loadClass(Plugin.class.getName());
+        assertNotSame(Plugin.class, pluginType);
+
+        Injector child = parent.child(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(pluginType).toSingleton();
+            }
+        });
+
+        Object plugin = child.provide(pluginType, parent);
+        assertTrue(pluginType.getField("started").getBoolean(plugin));
+        assertSame(parent.provide(Host.class, parent), pluginType.getField("host").get(plugin));
+        assertNotNull(child.construct(loader.loadClass(Helper.class.getName())));
+
+        child.destroy();
+
+        return new WeakReference<>(loader);
+    }
+
+    /**
+     * Constructs and injects plugin classes through an injector that outlives the plugin.
+     */
+    private static WeakReference<ClassLoader> runPluginIn(Injector injector) throws Exception {
+        PluginClassLoader loader = new PluginClassLoader();
+        Class<?> pluginType = loader.loadClass(Plugin.class.getName());
+        Class<?> helperType = loader.loadClass(Helper.class.getName());
+
+        Object plugin = injector.construct(pluginType);
+        assertTrue(pluginType.getField("started").getBoolean(plugin));
+        assertNotNull(pluginType.getField("helper").get(plugin));
+
+        Object helper = helperType.getConstructor().newInstance();
+        injector.inject(helper);
+        assertNotNull(helperType.getField("host").get(helper));
+
+        return new WeakReference<>(loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeakReference<ClassLoader> runQualifiedPlugin(Injector parent) throws Exception {
+        PluginClassLoader loader = new PluginClassLoader();
+        Class<?> pluginType = loader.loadClass(PluginWithQualifier.class.getName());
+        Class<? extends Annotation> qualifierType =
+                (Class<? extends Annotation>) loader.loadClass(PluginName.class.getName());
+        assertNotSame(PluginName.class, qualifierType);
+
+        Injector child = parent.child(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(String.class).qualifiedBy(qualifierType).toInstance("plugin");
+            }
+        });
+
+        Object plugin = child.construct(pluginType);
+        assertEquals("plugin", pluginType.getField("name").get(plugin));
+
+        child.destroy();
+
+        return new WeakReference<>(loader);
+    }
+}
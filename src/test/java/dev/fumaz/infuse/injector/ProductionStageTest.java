@@ -0,0 +1,179 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.exception.ConfigurationException;
+import dev.fumaz.infuse.exception.ProvisionException;
+import dev.fumaz.infuse.module.InfuseModule;
+import dev.fumaz.infuse.scope.ScopeHandle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionStageTest {
+
+    private static final InjectorOptions PRODUCTION = InjectorOptions.builder()
+            .stage(InjectorOptions.Stage.PRODUCTION)
+            .build();
+
+    interface Missing {
+    }
+
+    static class NeedsMissing {
+        @Inject
+        Missing missing;
+    }
+
+    static class Ping {
+        @Inject
+        Pong pong;
+    }
+
+    static class Pong {
+        @Inject
+        Ping ping;
+    }
+
+    static class Chicken {
+        @Inject
+        Chicken(Egg egg) {
+        }
+    }
+
+    static class Egg {
+        @Inject
+        Egg(Chicken chicken) {
+        }
+    }
+
+    interface Listener {
+    }
+
+    static class Window implements Listener {
+        @Inject
+        Button button;
+
+        @Inject
+        InfuseInjector injector;
+    }
+
+    static class Button {
+        @Inject
+        Listener listener;
+    }
+
+    static class RequestData {
+    }
+
+    static class Cache {
+        @Inject
+        Helper helper;
+    }
+
+    static class Helper {
+        @Inject
+        RequestData data;
+    }
+
+    static class Repository {
+    }
+
+    static class Service {
+        @Inject
+        Repository repository;
+
+        @Inject
+        Controller controller;
+    }
+
+    static class Controller {
+        @Inject
+        Repository repository;
+
+        @Inject
+        RequestData data;
+    }
+
+    @Test
+    void reportsEveryProblemAtOnce() {
+        ConfigurationException exception = assertThrows(ConfigurationException.class,
+                () -> Injector.create(PRODUCTION, new InfuseModule() {
+                    @Override
+                    public void configure() {
+                        bind(NeedsMissing.class).to(NeedsMissing.class);
+                        bind(Ping.class).to(Ping.class);
+                        bind(RequestData.class).toRequestScoped();
+                        bind(Cache.class).toSingleton();
+                    }
+                }));
+
+        String message = exception.getMessage();
+
+        assertTrue(message.contains("3 problems"), message);
+        assertTrue(message.contains("No binding found for " + Missing.class.getName()), message);
+        assertTrue(message.contains("field 'missing'"), message);
+        assertTrue(message.contains("Dependency cycle detected while resolving " + Ping.class.getName()), message);
+        assertTrue(message.contains("field 'ping'"), message);
+        assertTrue(message.contains(Cache.class.getName() + " [scope=singleton] depends on "
+                + RequestData.class.getName() + " [scope=request]"), message);
+    }
+
+    @Test
+    void validatedInjectorProvidesWithoutTracking() {
+        Injector injector = Injector.create(PRODUCTION, new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Repository.class).toSingleton();
+                bind(RequestData.class).toRequestScoped();
+                bind(Service.class).toRequestScoped();
+            }
+        });
+
+        try (ScopeHandle ignored = injector.openRequest()) {
+            Service service = injector.provide(Service.class, this);
+
+            assertSame(service.repository, service.controller.repository);
+            assertSame(service, injector.provide(Service.class, this));
+        }
+    }
+
+    @Test
+    void childInjectorsInheritTheStage() {
+        Injector parent = Injector.create(PRODUCTION);
+
+        ConfigurationException exception = assertThrows(ConfigurationException.class,
+                () -> parent.child(new InfuseModule() {
+                    @Override
+                    public void configure() {
+                        bind(NeedsMissing.class).to(NeedsMissing.class);
+                    }
+                }));
+
+        assertTrue(exception.getMessage().contains("1 problem:"), exception.getMessage());
+    }
+
+    @Test
+    void cyclesBetweenUnboundTypesAreReportedOnFirstUse() {
+        Injector injector = Injector.create(PRODUCTION);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            ProvisionException exception = assertThrows(ProvisionException.class,
+                    () -> injector.construct(Chicken.class));
+
+            assertInstanceOf(ConfigurationException.class, exception.getCause());
+            String message = exception.getCause().getMessage();
+            assertTrue(message.contains("Validation of " + Chicken.class.getName() + " found 1 problem:"), message);
+            assertTrue(message.contains("Dependency cycle detected while resolving " + Egg.class.getName()), message);
+        }
+
+        assertNotNull(injector.construct(Repository.class));
+    }
+
+    @Test
+    void graphsResolvedFromTheirOwnersAreNotRejected() {
+        Injector injector = Injector.create(PRODUCTION);
+        Window window = injector.construct(Window.class);
+
+        assertSame(window, window.button.listener);
+        assertSame(injector, window.injector);
+    }
+}
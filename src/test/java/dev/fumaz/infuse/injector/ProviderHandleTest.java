@@ -0,0 +1,93 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.module.InfuseModule;
+import dev.fumaz.infuse.provider.ProviderHandle;
+import dev.fumaz.infuse.scope.ScopeHandle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProviderHandleTest {
+
+    static class LazyService {
+    }
+
+    static class UnscopedService {
+    }
+
+    static class RequestService {
+    }
+
+    static class SessionService {
+    }
+
+    static class Unbound {
+    }
+
+    private static Injector createInjector() {
+        return Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(LazyService.class).toSingleton();
+                bind(UnscopedService.class).to(UnscopedService.class);
+                bind(RequestService.class).toRequestScoped();
+                bind(SessionService.class).toSessionScoped();
+            }
+        });
+    }
+
+    @Test
+    void singletonHandleCreatesOnceAndMatchesProvide() {
+        Injector injector = createInjector();
+        ProviderHandle<LazyService> handle = injector.handle(LazyService.class);
+
+        LazyService first = handle.get();
+
+        assertNotNull(first);
+        assertSame(first, handle.get());
+        assertSame(first, injector.provide(LazyService.class, this));
+    }
+
+    @Test
+    void unscopedAndUnboundHandlesCreateFreshInstances() {
+        Injector injector = createInjector();
+        ProviderHandle<UnscopedService> unscoped = injector.handle(UnscopedService.class);
+        ProviderHandle<Unbound> unbound = injector.handle(Unbound.class);
+
+        assertNotSame(unscoped.get(), unscoped.get());
+        assertNotSame(unbound.get(), unbound.get());
+    }
+
+    @Test
+    void requestHandleHonoursActiveRequest() {
+        Injector injector = createInjector();
+        ProviderHandle<RequestService> handle = injector.handle(RequestService.class);
+
+        RequestService first;
+        try (ScopeHandle ignored = injector.openRequest()) {
+            first = handle.get();
+            assertSame(first, handle.get());
+        }
+
+        try (ScopeHandle ignored = injector.openRequest()) {
+            assertNotSame(first, handle.get());
+        }
+
+        assertThrows(IllegalStateException.class, handle::get);
+    }
+
+    @Test
+    void sessionHandleHonoursActiveSession() {
+        Injector injector = createInjector();
+        ProviderHandle<SessionService> handle = injector.handle(SessionService.class);
+
+        SessionService first;
+        try (ScopeHandle ignored = injector.openSession("alice")) {
+            first = handle.get();
+        }
+
+        try (ScopeHandle ignored = injector.openSession("bob")) {
+            assertNotSame(first, handle.get());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.exception.ProvisionException;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProvisioningDepthTest {
+
+    static List<Integer> depths;
+
+    private static void recordDepth() {
+        depths.add(Thread.currentThread().getStackTrace().length);
+    }
+
+    @BeforeEach
+    void resetDepths() {
+        depths = new ArrayList<>();
+    }
+
+    static class Root {
+        final Stage stage;
+
+        @Inject
+        Root(Stage stage) {
+            recordDepth();
+            this.stage = stage;
+        }
+    }
+
+    interface Stage {
+    }
+
+    static class FirstStage implements Stage {
+        @Inject
+        SecondStage next;
+
+        FirstStage() {
+            recordDepth();
+        }
+    }
+
+    static class SecondStage {
+        final ThirdStage next;
+
+        @Inject
+        SecondStage(ThirdStage next) {
+            recordDepth();
+            this.next = next;
+        }
+    }
+
+    static class ThirdStage {
+        ThirdStage() {
+            recordDepth();
+        }
+    }
+
+    static class Broken {
+        Broken() {
+            throw new IllegalStateException("broken stage");
+        }
+    }
+
+    static class DependsOnBroken {
+        @Inject
+        Broken broken;
+    }
+
+    static class Top {
+        @Inject
+        DependsOnBroken dependency;
+    }
+
+    @Test
+    void stackDepthDoesNotGrowWithGraphDepth() {
+        Injector injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Stage.class).to(FirstStage.class);
+            }
+        });
+
+        Root root = injector.construct(Root.class);
+
+        assertNotNull(((FirstStage) root.stage).next.next);
+        assertEquals(4, depths.size());
+
+        for (int depth : depths) {
+            assertEquals((int) depths.get(0), depth, "every constructor should run at the same stack depth: " + depths);
+        }
+    }
+
+    @Test
+    void failuresUnwindWithTheFullInjectionChain() {
+        Injector injector = Injector.create();
+
+        ProvisionException exception = assertThrows(ProvisionException.class, () -> injector.construct(Top.class));
+
+        assertTrue(exception.getMessage().startsWith("Failed to construct " + Broken.class.getName()),
+                exception.getMessage());
+        assertEquals(2, exception.getResolutionPath().size());
+        assertEquals(DependsOnBroken.class.getName() + " requested at field 'dependency' of " + Top.class.getName(),
+                exception.getResolutionPath().get(0));
+        assertEquals(Broken.class.getName() + " requested at field 'broken' of " + DependsOnBroken.class.getName(),
+                exception.getResolutionPath().get(1));
+
+        // The failure is wrapped once, at the level it started.
+        Throwable root = exception.getCause();
+
+        while (root.getCause() != null) {
+            assertFalse(root instanceof ProvisionException, "the failure should not be wrapped per level");
+            root = root.getCause();
+        }
+
+        assertEquals("broken stage", root.getMessage());
+
+        // The resolution stack was unwound, so the injector keeps working on this thread.
+        assertNotNull(injector.construct(ThirdStage.class));
+    }
+}
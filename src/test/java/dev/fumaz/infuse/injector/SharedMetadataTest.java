@@ -0,0 +1,66 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.annotation.PostConstruct;
+import dev.fumaz.infuse.module.InfuseModule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedMetadataTest {
+
+    interface Store {
+    }
+
+    static class MemoryStore implements Store {
+    }
+
+    static class DiskStore implements Store {
+    }
+
+    static class Service {
+        final Store constructed;
+
+        @Inject
+        Store injected;
+
+        boolean initialised;
+
+        @Inject
+        Service(Store constructed) {
+            this.constructed = constructed;
+        }
+
+        @PostConstruct
+        void initialise() {
+            initialised = true;
+        }
+    }
+
+    private static InfuseModule storeModule(Class<? extends Store> implementation) {
+        return new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(Store.class).to(implementation);
+            }
+        };
+    }
+
+    @Test
+    void childrenResolveSharedMetadataAgainstTheirOwnBindings() {
+        Injector parent = Injector.create(storeModule(MemoryStore.class));
+        Service fromParent = parent.construct(Service.class);
+
+        Injector child = parent.child(storeModule(DiskStore.class));
+        Service fromChild = child.construct(Service.class);
+
+        assertInstanceOf(MemoryStore.class, fromParent.constructed);
+        assertInstanceOf(MemoryStore.class, fromParent.injected);
+        assertInstanceOf(DiskStore.class, fromChild.constructed);
+        assertInstanceOf(DiskStore.class, fromChild.injected);
+        assertTrue(fromChild.initialised);
+
+        // The parent's resolutions are unaffected by the child's.
+        assertInstanceOf(MemoryStore.class, parent.construct(Service.class).injected);
+    }
+}
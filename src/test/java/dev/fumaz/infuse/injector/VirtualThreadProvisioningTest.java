@@ -0,0 +1,94 @@
+package dev.fumaz.infuse.injector;
+
+import dev.fumaz.infuse.annotation.Inject;
+import dev.fumaz.infuse.module.InfuseModule;
+import dev.fumaz.infuse.scope.ScopeHandle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Provisions from far more virtual threads than there are carrier threads, with every thread blocked inside
+ * provisioning at the same time. If provisioning held a monitor while creating instances, each blocked virtual thread
+ * would pin its carrier and the threads could never all arrive. Skipped on runtimes without virtual threads; run
+ * {@code ./gradlew virtualThreadTest} to execute it on Java 21.
+ */
+class VirtualThreadProvisioningTest {
+
+    private static final int THREADS = 2_000;
+
+    static CountDownLatch arrived;
+
+    static class SlowSingleton {
+        SlowSingleton() throws InterruptedException {
+            Thread.sleep(50);
+        }
+    }
+
+    static class RequestHandler {
+        final boolean allArrived;
+
+        @Inject
+        SlowSingleton singleton;
+
+        RequestHandler() throws InterruptedException {
+            arrived.countDown();
+            allArrived = arrived.await(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void provisionsUnderThousandsOfVirtualThreads() throws Exception {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        assumeTrue(executor != null, "Virtual threads are not available on this runtime");
+
+        arrived = new CountDownLatch(THREADS);
+        Injector injector = Injector.create(new InfuseModule() {
+            @Override
+            public void configure() {
+                bind(SlowSingleton.class).toSingleton();
+                bind(RequestHandler.class).toRequestScoped();
+            }
+        });
+
+        try {
+            List<Future<RequestHandler>> handlers = new ArrayList<>(THREADS);
+
+            for (int i = 0; i < THREADS; i++) {
+                handlers.add(executor.submit(() -> {
+                    try (ScopeHandle ignored = injector.openRequest()) {
+                        return injector.provide(RequestHandler.class, this);
+                    }
+                }));
+            }
+
+            SlowSingleton singleton = injector.provide(SlowSingleton.class, this);
+
+            for (Future<RequestHandler> handler : handlers) {
+                RequestHandler provided = handler.get(60, TimeUnit.SECONDS);
+
+                assertTrue(provided.allArrived, "every virtual thread should be inside provisioning at once");
+                assertSame(singleton, provided.singleton);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}